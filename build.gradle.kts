@@ -7,6 +7,7 @@ plugins {
 	id("io.spring.dependency-management") version "1.1.7"
 	id("io.freefair.lombok") version "8.6"
 	id("io.sentry.jvm.gradle") version "5.3.0"
+	id("me.champeau.jmh") version "0.7.2"
 }
 
 application {
@@ -31,6 +32,12 @@ dependencies {
 	implementation("org.springframework.boot:spring-boot-starter-web")
 	implementation("org.springframework.boot:spring-boot-devtools")
 	implementation("org.springframework.boot:spring-boot-starter-data-jpa")
+	implementation("org.liquibase:liquibase-core")
+	implementation("org.springframework.boot:spring-boot-starter-actuator")
+	implementation("io.micrometer:micrometer-registry-prometheus")
+	implementation("org.hibernate.orm:hibernate-micrometer")
+	implementation("com.github.ben-manes.caffeine:caffeine")
+	implementation("net.ttddyy:datasource-proxy:1.10")
 	testImplementation("org.springframework.boot:spring-boot-starter-test")
 	testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 	runtimeOnly("com.h2database:h2")
@@ -54,6 +61,29 @@ dependencies {
 	implementation("io.sentry:sentry-spring-boot-starter-jakarta:6.28.0")
 }
 
+sourceSets {
+	create("loadtest")
+}
+
+tasks.register<JavaExec>("loadTest") {
+	group = "verification"
+	description = "Runs the GET /api/tasks throughput harness against a running application (-PloadTest.*)."
+	classpath = sourceSets["loadtest"].runtimeClasspath
+	mainClass.set("hexlet.code.loadtest.TaskListLoadTest")
+	systemProperties(project.properties.filterKeys { it.startsWith("loadTest.") })
+}
+
+jmh {
+	jmhVersion = "1.37"
+	// ./gradlew jmh -PjmhIncludes=Jwt runs a subset; results are written as JSON for comparison between releases
+	includes = listOfNotNull(project.findProperty("jmhIncludes")?.toString())
+	fork = 1
+	warmupIterations = 3
+	iterations = 5
+	resultFormat = "JSON"
+	resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+}
+
 tasks.withType<Test> {
 	useJUnitPlatform()
 }
@@ -0,0 +1,26 @@
+package hexlet.code.benchmark;
+
+import hexlet.code.AppApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Запуск контекста приложения для бенчмарков: профиль development (H2 в памяти, начальные данные),
+ * случайный порт и выключенный вывод SQL и логов, чтобы они не попадали в измерения.
+ */
+final class ApplicationContexts {
+
+    private ApplicationContexts() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(AppApplication.class)
+                .profiles("development")
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.output.ansi.enabled=never",
+                        "--logging.level.root=OFF",
+                        "--logging.level.org.springframework.security=OFF",
+                        "--spring.main.banner-mode=off");
+    }
+}
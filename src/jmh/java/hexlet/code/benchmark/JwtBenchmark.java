@@ -0,0 +1,85 @@
+package hexlet.code.benchmark;
+
+import hexlet.code.component.RsaKeyProperties;
+import hexlet.code.util.JWTUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки JWT: выпуск токена (подпись RSA), полная проверка подписи NimbusJwtDecoder
+ * и декодирование через настроенный в приложении декодер с кэшем проверенных токенов.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+
+    private ConfigurableApplicationContext context;
+
+    private JWTUtils jwtUtils;
+
+    private JwtDecoder nimbusDecoder;
+
+    private JwtDecoder applicationDecoder;
+
+    private String token;
+
+    /**
+     * Метод подготовки: запуск контекста и выпуск токена для декодирования.
+     */
+    @Setup
+    public void setUp() {
+        context = ApplicationContexts.start();
+        jwtUtils = context.getBean(JWTUtils.class);
+        applicationDecoder = context.getBean(JwtDecoder.class);
+        nimbusDecoder = NimbusJwtDecoder.withPublicKey(context.getBean(RsaKeyProperties.class).getPublicKey())
+                .build();
+        token = jwtUtils.generateToken("hexlet@example.com");
+    }
+
+    /**
+     * Метод остановки контекста.
+     */
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Бенчмарк JWTUtils.generateToken.
+     * @return - возвращает токен.
+     */
+    @Benchmark
+    public Object generateToken() {
+        return jwtUtils.generateToken("hexlet@example.com");
+    }
+
+    /**
+     * Бенчмарк декодирования с проверкой подписи на каждом вызове.
+     * @return - возвращает Jwt.
+     */
+    @Benchmark
+    public Object decodeWithSignatureCheck() {
+        return nimbusDecoder.decode(token);
+    }
+
+    /**
+     * Бенчмарк декодирования через декодер приложения (повторный токен берется из кэша).
+     * @return - возвращает Jwt.
+     */
+    @Benchmark
+    public Object decodeWithApplicationDecoder() {
+        return applicationDecoder.decode(token);
+    }
+}
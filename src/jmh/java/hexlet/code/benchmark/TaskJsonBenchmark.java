@@ -0,0 +1,78 @@
+package hexlet.code.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.dto.TaskDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк сериализации страницы List&lt;TaskDTO&gt; тем же ObjectMapper, что и в приложении
+ * (JacksonConfig: JsonNullableModule, формат дат yyyy-MM-dd, без null-полей).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskJsonBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+
+    private ObjectMapper objectMapper;
+
+    private List<TaskDTO> page;
+
+    /**
+     * Метод подготовки: запуск контекста и создание страницы задач.
+     */
+    @Setup
+    public void setUp() {
+        context = ApplicationContexts.start();
+        objectMapper = context.getBean(ObjectMapper.class);
+        page = new ArrayList<>();
+        for (long i = 1; i <= pageSize; i++) {
+            var dto = new TaskDTO();
+            dto.setId(i);
+            dto.setIndex(1000 + i);
+            dto.setTitle("Task " + i);
+            dto.setContent("Description of task " + i);
+            dto.setCreatedAt(LocalDate.now());
+            dto.setStatus("to_review");
+            dto.setAssigneeId(i % 2 == 0 ? null : 1L);
+            dto.setTaskLabelIds(List.of(1L, 2L));
+            page.add(dto);
+        }
+    }
+
+    /**
+     * Метод остановки контекста.
+     */
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Бенчмарк сериализации страницы задач в байты JSON.
+     * @return - возвращает JSON.
+     * @throws Exception - при ошибке сериализации
+     */
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,96 @@
+package hexlet.code.benchmark;
+
+import hexlet.code.dto.TaskCreateDTO;
+import hexlet.code.mapper.TaskMapper;
+import hexlet.code.model.Label;
+import hexlet.code.model.Task;
+import hexlet.code.model.User;
+import hexlet.code.repository.LabelRepository;
+import hexlet.code.repository.TaskStatusRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки TaskMapper: сущность в TaskDTO и TaskCreateDTO в сущность
+ * (статус и метки берутся из ReferenceDataRegistry, без запросов к БД).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TaskMapperBenchmark {
+
+    private ConfigurableApplicationContext context;
+
+    private TaskMapper taskMapper;
+
+    private Task task;
+
+    private TaskCreateDTO createDTO;
+
+    /**
+     * Метод подготовки: запуск контекста и создание задачи и запроса на создание.
+     */
+    @Setup
+    public void setUp() {
+        context = ApplicationContexts.start();
+        taskMapper = context.getBean(TaskMapper.class);
+        var labels = context.getBean(LabelRepository.class).findAll();
+        var status = context.getBean(TaskStatusRepository.class).findBySlug("draft").orElseThrow();
+
+        var assignee = new User();
+        assignee.setId(1L);
+        task = new Task();
+        task.setId(1L);
+        task.setIndex(42L);
+        task.setName("Benchmark task");
+        task.setDescription("Task used to measure mapping cost");
+        task.setCreatedAt(LocalDate.now());
+        task.setTaskStatus(status);
+        task.setAssignee(assignee);
+        task.setLabels(new ArrayList<>(labels));
+
+        createDTO = new TaskCreateDTO();
+        createDTO.setIndex(42L);
+        createDTO.setTitle("Benchmark task");
+        createDTO.setContent("Task used to measure mapping cost");
+        createDTO.setStatus(status.getSlug());
+        createDTO.setTaskLabelIds(labels.stream().map(Label::getId).toList());
+    }
+
+    /**
+     * Метод остановки контекста.
+     */
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Бенчмарк TaskMapper.map(Task).
+     * @return - возвращает TaskDTO.
+     */
+    @Benchmark
+    public Object mapTaskToDTO() {
+        return taskMapper.map(task);
+    }
+
+    /**
+     * Бенчмарк TaskMapper.map(TaskCreateDTO).
+     * @return - возвращает Task.
+     */
+    @Benchmark
+    public Object mapCreateDTOToTask() {
+        return taskMapper.map(createDTO);
+    }
+}
@@ -0,0 +1,61 @@
+package hexlet.code.benchmark;
+
+import hexlet.code.dto.TaskParamsDTO;
+import hexlet.code.specification.TaskSpecification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк сборки спецификации фильтров GET /api/tasks из TaskParamsDTO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TaskSpecificationBenchmark {
+
+    private ConfigurableApplicationContext context;
+
+    private TaskSpecification taskSpecification;
+
+    private TaskParamsDTO params;
+
+    /**
+     * Метод подготовки: запуск контекста и заполнение всех фильтров.
+     */
+    @Setup
+    public void setUp() {
+        context = ApplicationContexts.start();
+        taskSpecification = context.getBean(TaskSpecification.class);
+        params = new TaskParamsDTO();
+        params.setTitleCont("create");
+        params.setAssigneeId(1L);
+        params.setStatus("to_be_fixed");
+        params.setLabelId(1L);
+    }
+
+    /**
+     * Метод остановки контекста.
+     */
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Бенчмарк TaskSpecification.build.
+     * @return - возвращает спецификацию.
+     */
+    @Benchmark
+    public Object build() {
+        return taskSpecification.build(params);
+    }
+}
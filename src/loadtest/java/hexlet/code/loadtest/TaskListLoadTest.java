@@ -0,0 +1,134 @@
+package hexlet.code.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Нагрузочный стенд для GET /api/tasks.
+ * Запускается против уже работающего приложения (обычного и с профилем virtual) командой
+ * ./gradlew loadTest -PloadTest.baseUrl=http://localhost:8080 -PloadTest.concurrency=50,200,1000
+ * Каждый клиент - отдельный виртуальный поток, который без пауз повторяет запрос в течение loadTest.duration.
+ * Для каждого уровня параллельности печатается пропускная способность, доля ответов 503 и ошибок,
+ * а также перцентили задержки, чтобы режимы можно было сравнить по одной таблице.
+ */
+public final class TaskListLoadTest {
+
+    private TaskListLoadTest() {
+    }
+
+    /**
+     * Точка входа стенда.
+     * @param args - не используются, параметры задаются системными свойствами loadTest.*
+     * @throws Exception - при ошибке входа в приложение
+     */
+    public static void main(String[] args) throws Exception {
+        var baseUrl = System.getProperty("loadTest.baseUrl", "http://localhost:8080");
+        var path = System.getProperty("loadTest.path", "/api/tasks");
+        var duration = Duration.parse(System.getProperty("loadTest.duration", "PT20S"));
+        var levels = Arrays.stream(System.getProperty("loadTest.concurrency", "50,200,1000").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        var client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        var token = login(client, baseUrl,
+                System.getProperty("loadTest.username", "hexlet@example.com"),
+                System.getProperty("loadTest.password", "qwerty"));
+        var request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+        System.out.printf("%-12s %10s %10s %10s %10s %10s %10s%n",
+                "concurrency", "req/s", "ok", "503", "errors", "p50 ms", "p99 ms");
+        for (var level : levels) {
+            var result = run(client, request, level, duration);
+            System.out.printf("%-12d %10.1f %10d %10d %10d %10.1f %10.1f%n",
+                    level, result.throughput(duration), result.ok(), result.busy(), result.errors(),
+                    result.percentile(0.50), result.percentile(0.99));
+        }
+    }
+
+    private static String login(HttpClient client, String baseUrl, String username, String password)
+            throws Exception {
+        var body = "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}";
+        var request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        var response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed with status " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, int concurrency, Duration duration)
+            throws InterruptedException {
+        var ok = new AtomicLong();
+        var busy = new AtomicLong();
+        var errors = new AtomicLong();
+        var latencies = new ConcurrentLinkedQueue<Long>();
+        var deadline = System.nanoTime() + duration.toNanos();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        var start = System.nanoTime();
+                        try {
+                            var status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            if (status == 200) {
+                                ok.incrementAndGet();
+                                latencies.add(System.nanoTime() - start);
+                            } else if (status == 503) {
+                                busy.incrementAndGet();
+                            } else {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+        var sorted = new ArrayList<>(latencies);
+        sorted.sort(Long::compare);
+        return new Result(ok.get(), busy.get(), errors.get(), sorted);
+    }
+
+    /**
+     * Итоги одного прогона.
+     * @param ok - число успешных ответов
+     * @param busy - число ответов 503
+     * @param errors - число прочих ответов и сетевых ошибок
+     * @param latencies - отсортированные задержки успешных ответов в наносекундах
+     */
+    private record Result(long ok, long busy, long errors, List<Long> latencies) {
+
+        double throughput(Duration duration) {
+            return ok * 1000.0 / duration.toMillis();
+        }
+
+        double percentile(double quantile) {
+            if (latencies.isEmpty()) {
+                return 0;
+            }
+            var index = (int) Math.min(latencies.size() - 1, Math.ceil(quantile * latencies.size()) - 1);
+            return latencies.get(Math.max(index, 0)) / 1_000_000.0;
+        }
+    }
+}
@@ -10,10 +10,12 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 
 @SpringBootApplication
 @EnableJpaAuditing
+@EnableScheduling
 @EnableMethodSecurity
 // следующие две аннотации для swagger, это @OpenAPIDefinition и @SecurityScheme, в принципе можно их удалить
 @OpenAPIDefinition(
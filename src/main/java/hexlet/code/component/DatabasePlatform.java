@@ -0,0 +1,29 @@
+package hexlet.code.component;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Компонент DatabasePlatform сообщает, с какой СУБД работает приложение.
+ * Используется там, где для PostgreSQL есть более эффективный путь, чем переносимый (H2 в dev и тестах).
+ */
+@Component
+public class DatabasePlatform {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Метод определяет, работает ли приложение с PostgreSQL.
+     * @return - возвращает true, если диалект Hibernate - PostgreSQL
+     */
+    public boolean isPostgreSQL() {
+        var dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect();
+        return dialect instanceof PostgreSQLDialect;
+    }
+}
@@ -0,0 +1,275 @@
+package hexlet.code.component;
+
+import hexlet.code.model.Label;
+import hexlet.code.model.TaskStatus;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Компонент ReferenceDataRegistry хранит в памяти справочники статусов (по слагу) и меток (по id и по имени).
+ * Справочник загружается целиком при первом обращении и сбрасывается при записи через контроллеры
+ * и сервисы статусов и меток (а также по истечении reference-data.ttl как страховка от записей в обход них).
+ * Ключи, которых нет в памяти, дочитываются из БД одним запросом (это промахи справочника).
+ * Справочник читается скалярными запросами (без создания управляемых сущностей и без загрузки Label.tasks),
+ * а наружу отдаются отсоединенные копии, чтобы общие экземпляры никто не изменял.
+ */
+@Component
+public class ReferenceDataRegistry {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${reference-data.ttl:PT5M}")
+    private Duration ttl;
+
+    private final Entries<String, TaskStatus> statuses = new Entries<>();
+
+    private final Entries<Long, Label> labels = new Entries<>();
+
+    private final Entries<String, Label> labelsByName = new Entries<>();
+
+    @PostConstruct
+    private void registerMetrics() {
+        statuses.register(meterRegistry, "status");
+        labels.register(meterRegistry, "label");
+        labelsByName.register(meterRegistry, "label_name");
+    }
+
+    /**
+     * Метод поиска статусов по слагам.
+     * @param slugs - слаги статусов
+     * @return - возвращает найденные статусы по слагам (неизвестные слаги в результат не попадают)
+     */
+    public Map<String, TaskStatus> findStatuses(Collection<String> slugs) {
+        return statuses.find(slugs,
+                () -> loadStatuses(null),
+                this::loadStatuses,
+                TaskStatus::getSlug,
+                ReferenceDataRegistry::copyOf);
+    }
+
+    /**
+     * Метод поиска статуса по слагу.
+     * @param slug - слаг статуса
+     * @return - возвращает статус (или null)
+     */
+    public TaskStatus findStatus(String slug) {
+        return findStatuses(List.of(slug)).get(slug);
+    }
+
+    /**
+     * Метод поиска меток по идентификаторам.
+     * @param ids - идентификаторы меток
+     * @return - возвращает найденные метки по идентификаторам (неизвестные в результат не попадают)
+     */
+    public Map<Long, Label> findLabels(Collection<Long> ids) {
+        return labels.find(ids,
+                () -> loadLabels(null, null),
+                missing -> loadLabels("id", missing),
+                Label::getId,
+                ReferenceDataRegistry::copyOf);
+    }
+
+    /**
+     * Метод поиска меток по именам.
+     * @param names - имена меток
+     * @return - возвращает найденные метки по именам (неизвестные имена в результат не попадают)
+     */
+    public Map<String, Label> findLabelsByName(Collection<String> names) {
+        return labelsByName.find(names,
+                () -> loadLabels(null, null),
+                missing -> loadLabels("name", missing),
+                Label::getName,
+                ReferenceDataRegistry::copyOf);
+    }
+
+    /**
+     * Метод сброса справочника статусов (вызывается после записи статусов).
+     */
+    public void invalidateStatuses() {
+        statuses.invalidate();
+    }
+
+    /**
+     * Метод сброса справочника меток (вызывается после записи меток).
+     */
+    public void invalidateLabels() {
+        labels.invalidate();
+        labelsByName.invalidate();
+    }
+
+    private List<TaskStatus> loadStatuses(Collection<String> slugs) {
+        var jpql = "select s.id as id, s.name as name, s.slug as slug, s.createdAt as createdAt, s.version as version"
+                + " from TaskStatus s"
+                + (slugs == null ? "" : " where s.slug in :slugs");
+        var query = entityManager.createQuery(jpql, Tuple.class);
+        if (slugs != null) {
+            query.setParameter("slugs", slugs);
+        }
+        return query.getResultList().stream()
+                .map(row -> {
+                    var status = new TaskStatus();
+                    status.setId(row.get("id", Long.class));
+                    status.setName(row.get("name", String.class));
+                    status.setSlug(row.get("slug", String.class));
+                    status.setCreatedAt(row.get("createdAt", LocalDate.class));
+                    status.setVersion(row.get("version", Long.class));
+                    return status;
+                })
+                .toList();
+    }
+
+    private List<Label> loadLabels(String attribute, Collection<?> keys) {
+        var jpql = "select l.id as id, l.name as name, l.createdAt as createdAt, l.version as version from Label l"
+                + (keys == null ? "" : " where l." + attribute + " in :keys");
+        var query = entityManager.createQuery(jpql, Tuple.class);
+        if (keys != null) {
+            query.setParameter("keys", keys);
+        }
+        return query.getResultList().stream()
+                .map(row -> {
+                    var label = new Label();
+                    label.setId(row.get("id", Long.class));
+                    label.setName(row.get("name", String.class));
+                    label.setCreatedAt(row.get("createdAt", LocalDate.class));
+                    label.setVersion(row.get("version", Long.class));
+                    return label;
+                })
+                .toList();
+    }
+
+    private static TaskStatus copyOf(TaskStatus source) {
+        var copy = new TaskStatus();
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        copy.setSlug(source.getSlug());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setVersion(source.getVersion());
+        return copy;
+    }
+
+    private static Label copyOf(Label source) {
+        var copy = new Label();
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setVersion(source.getVersion());
+        return copy;
+    }
+
+    /**
+     * Снимок одного справочника со счетчиками попаданий и промахов.
+     * @param <K> - тип ключа
+     * @param <V> - тип сущности
+     */
+    private final class Entries<K, V> {
+
+        private final AtomicReference<Snapshot<K, V>> snapshot = new AtomicReference<>();
+
+        // номер поколения справочника: invalidate() его увеличивает, и снимок, загрузка которого началась
+        // до записи, уже не считается актуальным, даже если он был установлен после сброса
+        private final AtomicLong generation = new AtomicLong();
+
+        private final AtomicLong hits = new AtomicLong();
+
+        private final AtomicLong misses = new AtomicLong();
+
+        void register(MeterRegistry registry, String type) {
+            FunctionCounter.builder("reference.registry.lookups", hits, AtomicLong::get)
+                    .tag("type", type)
+                    .tag("result", "hit")
+                    .description("Lookups of reference data served from memory")
+                    .register(registry);
+            FunctionCounter.builder("reference.registry.lookups", misses, AtomicLong::get)
+                    .tag("type", type)
+                    .tag("result", "miss")
+                    .description("Lookups of reference data that had to go to the database")
+                    .register(registry);
+            Gauge.builder("reference.registry.size", snapshot, ref -> ref.get() == null ? 0 : ref.get().values.size())
+                    .tag("type", type)
+                    .register(registry);
+        }
+
+        Map<K, V> find(Collection<K> keys, Supplier<List<V>> loadAll,
+                       Function<Collection<K>, List<V>> loadSome, Function<V, K> keyOf, UnaryOperator<V> copy) {
+            var current = current(loadAll, keyOf);
+            var result = new HashMap<K, V>();
+            var missing = new ArrayList<K>();
+            for (var key : keys) {
+                if (key == null || result.containsKey(key)) {
+                    continue;
+                }
+                var value = current.values.get(key);
+                if (value == null) {
+                    missing.add(key);
+                } else {
+                    result.put(key, copy.apply(value));
+                }
+            }
+            hits.addAndGet(result.size());
+            if (!missing.isEmpty()) {
+                misses.addAndGet(missing.size());
+                for (var value : loadSome.apply(missing)) {
+                    current.values.put(keyOf.apply(value), value);
+                    result.put(keyOf.apply(value), copy.apply(value));
+                }
+            }
+            return result;
+        }
+
+        void invalidate() {
+            generation.incrementAndGet();
+            snapshot.set(null);
+        }
+
+        private Snapshot<K, V> current(Supplier<List<V>> loadAll, Function<V, K> keyOf) {
+            var current = snapshot.get();
+            var now = System.nanoTime();
+            var expected = generation.get();
+            if (current != null && current.generation == expected && now - current.loadedAt < ttl.toNanos()) {
+                return current;
+            }
+            var values = new ConcurrentHashMap<K, V>();
+            loadAll.get().forEach(value -> values.put(keyOf.apply(value), value));
+            var loaded = new Snapshot<>(values, now, expected);
+            snapshot.compareAndSet(current, loaded);
+            return loaded;
+        }
+    }
+
+    /**
+     * Загруженные значения справочника и момент загрузки.
+     * @param values - значения справочника по ключу
+     * @param loadedAt - момент загрузки (System.nanoTime)
+     * @param generation - поколение справочника, в котором началась загрузка
+     * @param <K> - тип ключа
+     * @param <V> - тип сущности
+     */
+    private record Snapshot<K, V>(Map<K, V> values, long loadedAt, long generation) {
+    }
+}
@@ -0,0 +1,283 @@
+package hexlet.code.component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import hexlet.code.dto.ListingPage;
+import hexlet.code.event.TaskChangedEvent;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Компонент ResourceVersions выдает ETag ресурсов API для условных GET (If-None-Match).
+ * - ETag отдельной записи строится из ее версии в БД (столбец version, @Version). Выданные ETag хранятся
+ *   в памяти экземпляра до записи этого ресурса, поэтому совпадающий If-None-Match проверяется без обращения к БД.
+ * - Версия списка ресурса хранится только в памяти экземпляра и увеличивается после фиксации любой записи
+ *   этого ресурса. Она берется до чтения данных, так что данные, прочитанные до фиксации, никогда не получают
+ *   версию, выданную после нее.
+ * Записи в обход этого экземпляра приложения (другие экземпляры, прямые изменения БД) учитываются
+ * не позже чем через etag.max-age: по истечении этого срока ETag выдаются заново.
+ * Для небольших справочников здесь же хранится сериализованное тело ответа последней версии списка.
+ */
+@Component
+public class ResourceVersions {
+
+    /**
+     * Ресурсы API с версиями.
+     */
+    public enum Resource {
+        TASKS,
+        LABELS,
+        TASK_STATUSES,
+        USERS
+    }
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${etag.max-age:PT1M}")
+    private Duration maxAge;
+
+    @Value("${etag.max-items:100000}")
+    private long maxItems;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Map<Resource, State> states = new EnumMap<>(Resource.class);
+
+    @PostConstruct
+    private void init() {
+        for (var resource : Resource.values()) {
+            states.put(resource, new State());
+        }
+    }
+
+    /**
+     * Метод получения ETag списка ресурса (вызывается до чтения данных списка).
+     * @param resource - ресурс
+     * @return - возвращает ETag текущей версии списка
+     */
+    public String collectionTag(Resource resource) {
+        return tag(resource, "all", epoch + "-" + states.get(resource).generation());
+    }
+
+    /**
+     * Метод получения ETag списка ресурса, содержимое которого зависит и от другого ресурса
+     * (например, список меток с числом задач).
+     * @param resource - ресурс
+     * @param dependency - ресурс, от которого зависит список
+     * @return - возвращает ETag, меняющийся при изменении любого из ресурсов
+     */
+    public String collectionTag(Resource resource, Resource dependency) {
+        return tag(resource, "all",
+                epoch + "-" + states.get(resource).generation() + "." + states.get(dependency).generation());
+    }
+
+    /**
+     * Метод ответа на GET отдельной записи с учетом If-None-Match.
+     * Если клиенту уже выдан ETag текущей версии записи, возвращается 304 без чтения записи.
+     * Иначе запись читается, а ETag строится из ее версии и запоминается до записи ресурса.
+     * @param resource - ресурс
+     * @param id - идентификатор записи
+     * @param ifNoneMatch - значение заголовка If-None-Match (или null)
+     * @param loader - чтение записи (бросает ResourceNotFoundException, если записи нет)
+     * @param version - версия прочитанной записи (столбец version)
+     * @param <T> - тип представления записи
+     * @return - возвращает 304 или 200 с записью и ее ETag
+     */
+    public <T> ResponseEntity<T> item(Resource resource, Long id, String ifNoneMatch, Supplier<T> loader,
+                                      Function<T, Long> version) {
+        var state = states.get(resource);
+        var known = state.items.getIfPresent(id);
+        if (known != null && notModified(ifNoneMatch, known)) {
+            return notModifiedResponse(known);
+        }
+        var invalidations = state.invalidations.get();
+        var item = loader.get();
+        var tag = tag(resource, String.valueOf(id), String.valueOf(version.apply(item)));
+        // запись, зафиксированная во время чтения, могла уже сбросить ETag: прочитанная версия тогда не запоминается
+        if (state.invalidations.get() == invalidations) {
+            state.items.put(id, tag);
+        }
+        if (notModified(ifNoneMatch, tag)) {
+            return notModifiedResponse(tag);
+        }
+        return ResponseEntity.ok().eTag(tag).body(item);
+    }
+
+    /**
+     * Метод получения сериализованной в JSON страницы списка для версии tag.
+     * Страница читается и сериализуется заново только при смене версии или параметров запроса
+     * (хранится одна страница на ресурс); используется для небольших справочников.
+     * @param resource - ресурс
+     * @param tag - ETag списка, полученный до чтения данных
+     * @param key - параметры запроса страницы
+     * @param loader - чтение страницы
+     * @return - возвращает тело страницы
+     */
+    public CachedBody cachedList(Resource resource, String tag, Object key, Supplier<ListingPage<?>> loader) {
+        var state = states.get(resource);
+        var current = state.body.get();
+        if (current != null && current.tag().equals(tag) && current.key().equals(key)) {
+            return current;
+        }
+        var page = loader.get();
+        try {
+            var body = new CachedBody(tag, key, objectMapper.writeValueAsBytes(page.items()), page.total(),
+                    page.nextCursor());
+            state.body.set(body);
+            return body;
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Метод учета записи ресурса: версия списка и ETag записи сбрасываются после завершения транзакции
+     * (или сразу, если транзакции нет).
+     * @param resource - ресурс
+     * @param id - идентификатор измененной записи (или null, если изменены несколько записей)
+     */
+    public void changed(Resource resource, Long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(resource, id);
+                }
+            });
+        } else {
+            invalidate(resource, id);
+        }
+    }
+
+    /**
+     * Метод учета изменений задач (в том числе массовых, в обход JPA) после фиксации транзакции.
+     * @param event - событие изменения задачи
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        invalidate(Resource.TASKS, event.isBulk() ? null : event.getTaskId());
+    }
+
+    /**
+     * Метод проверки заголовка If-None-Match.
+     * @param ifNoneMatch - значение заголовка (или null)
+     * @param tag - текущий ETag
+     * @return - возвращает true, если клиент уже имеет текущую версию
+     */
+    public static boolean notModified(String ifNoneMatch, String tag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        var expected = weakless(tag);
+        for (var candidate : ifNoneMatch.split(",")) {
+            var value = candidate.trim();
+            if (value.equals("*") || weakless(value).equals(expected)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Метод построения ответа 304 Not Modified.
+     * @param tag - текущий ETag
+     * @param <T> - тип тела ответа
+     * @return - возвращает ответ без тела
+     */
+    public static <T> ResponseEntity<T> notModifiedResponse(String tag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag).build();
+    }
+
+    private void invalidate(Resource resource, Long id) {
+        var state = states.get(resource);
+        state.invalidations.incrementAndGet();
+        state.generation.set(new Generation(sequence.incrementAndGet(), System.nanoTime()));
+        if (id == null) {
+            state.items.invalidateAll();
+        } else {
+            state.items.invalidate(id);
+        }
+        if (resource != Resource.TASKS) {
+            // список задач выводится вместе со slug статуса, метками и исполнителем;
+            // ETag отдельных задач от этого не зависят: их версия меняется вместе со строкой задачи
+            var tasks = states.get(Resource.TASKS);
+            tasks.generation.set(new Generation(sequence.incrementAndGet(), System.nanoTime()));
+        }
+    }
+
+    private String tag(Resource resource, String key, String version) {
+        return "W/\"" + resource.name().toLowerCase(Locale.ROOT) + "-" + key + "-" + version + "\"";
+    }
+
+    private static String weakless(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    /**
+     * Сериализованное тело страницы списка.
+     * @param tag - ETag версии, для которой построено тело
+     * @param key - параметры запроса страницы
+     * @param json - тело в JSON
+     * @param total - общее число элементов списка (для X-Total-Count)
+     * @param nextCursor - курсор следующей страницы (или null)
+     */
+    public record CachedBody(String tag, Object key, byte[] json, long total, String nextCursor) {
+    }
+
+    /**
+     * Версия списка ресурса и момент ее выдачи.
+     * @param value - номер версии
+     * @param issuedAt - момент выдачи (System.nanoTime)
+     */
+    private record Generation(long value, long issuedAt) {
+    }
+
+    /**
+     * Версии одного ресурса.
+     */
+    private final class State {
+
+        private final AtomicReference<Generation> generation =
+                new AtomicReference<>(new Generation(sequence.incrementAndGet(), System.nanoTime()));
+
+        private final AtomicLong invalidations = new AtomicLong();
+
+        private final Cache<Long, String> items = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .expireAfterWrite(maxAge)
+                .build();
+
+        private final AtomicReference<CachedBody> body = new AtomicReference<>();
+
+        long generation() {
+            var current = generation.get();
+            if (System.nanoTime() - current.issuedAt() < maxAge.toNanos()) {
+                return current.value();
+            }
+            var renewed = new Generation(sequence.incrementAndGet(), System.nanoTime());
+            return generation.compareAndSet(current, renewed) ? renewed.value() : generation.get().value();
+        }
+    }
+}
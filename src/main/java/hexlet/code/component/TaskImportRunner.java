@@ -0,0 +1,64 @@
+package hexlet.code.component;
+
+import hexlet.code.service.TaskExportService;
+import hexlet.code.service.TaskImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Класс загрузки задач из файла при запуске приложения (рядом с DataInitializer).
+ * Загрузка выполняется, только если передан аргумент --import.file=путь; формат задается
+ * --import.format=ndjson|csv (по умолчанию по расширению файла), прерванное задание продолжается
+ * с --import.job-id=идентификатор. Чтобы приложение завершилось после загрузки,
+ * его запускают с --spring.main.web-application-type=none.
+ */
+@Slf4j
+@Component
+public class TaskImportRunner implements ApplicationRunner {
+
+    @Autowired
+    private TaskImportService taskImportService;
+
+    /**
+     * Метод загрузки задач из файла, указанного в аргументах запуска.
+     * @param args - аргументы запущенного приложения
+     * @throws Exception - при ошибке открытия файла
+     */
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        var file = option(args, "import.file");
+        if (file == null) {
+            return;
+        }
+        var format = option(args, "import.format");
+        if (format == null) {
+            format = file.toLowerCase().endsWith(".csv") ? "csv" : "ndjson";
+        }
+        var jobId = option(args, "import.job-id");
+        try (var in = new BufferedInputStream(Files.newInputStream(Path.of(file)))) {
+            var job = taskImportService.importTasks(in, TaskExportService.Format.of(format),
+                    jobId == null ? null : Long.valueOf(jobId),
+                    progress -> log.info("Import job {}: {} records processed, {} imported, {} rejected",
+                            progress.getId(), progress.getProcessed(), progress.getImported(), progress.getRejected()));
+            log.info("Import job {} {}: {} records processed, {} imported, {} rejected",
+                    job.getId(), job.getStatus(), job.getProcessed(), job.getImported(), job.getRejected());
+            job.getRejections().forEach(rejection -> log.warn("Import job {}: {}", job.getId(), rejection));
+            if (job.getError() != null) {
+                log.error("Import job {}: {} (rerun with --import.job-id={} to resume)",
+                        job.getId(), job.getError(), job.getId());
+            }
+        }
+    }
+
+    private static String option(ApplicationArguments args, String name) {
+        var values = args.getOptionValues(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+}
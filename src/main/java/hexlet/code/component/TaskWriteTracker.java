@@ -0,0 +1,77 @@
+package hexlet.code.component;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Компонент TaskWriteTracker учитывает незафиксированные транзакции, записывающие время изменения задач
+ * (tasks.updated_at и task_tombstones.deleted_at). Время записи выставляется до фиксации, поэтому строка
+ * становится видна позже, чем наступает ее время. Пока такая транзакция не завершилась, GET /api/tasks/changes
+ * не сдвигает watermark дальше самого раннего записанного ею времени (TaskChangesService), и изменение
+ * не пропускается, сколько бы транзакция ни длилась.
+ * Учитываются транзакции этого экземпляра приложения; записи других экземпляров покрывает окно tasks.changes.settle.
+ */
+@Component
+public class TaskWriteTracker {
+
+    private final Map<Object, Instant> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Метод получения времени записи для задачи или отметки об удалении в текущей транзакции.
+     * @return - возвращает текущий момент, учтенный как время записи транзакции
+     */
+    public Instant now() {
+        var now = Instant.now();
+        track(now);
+        return now;
+    }
+
+    /**
+     * Метод учета времени записи, выставленного в текущей транзакции (например, @LastModifiedDate).
+     * До завершения транзакции учитывается самое раннее из выставленных ею значений.
+     * @param stamp - записываемое время изменения
+     */
+    public void track(Instant stamp) {
+        if (stamp == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        var key = TransactionSynchronizationManager.getResource(this);
+        if (key != null) {
+            inFlight.merge(key, stamp, (current, next) -> next.isBefore(current) ? next : current);
+            return;
+        }
+        var registered = new Object();
+        inFlight.put(registered, stamp);
+        TransactionSynchronizationManager.bindResource(this, registered);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(TaskWriteTracker.this);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(TaskWriteTracker.this, registered);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TaskWriteTracker.this);
+                inFlight.remove(registered);
+            }
+        });
+    }
+
+    /**
+     * Метод получения самого раннего времени записи среди незафиксированных транзакций.
+     * @return - возвращает самое раннее время записи или null, если таких транзакций нет
+     */
+    public Instant oldestInFlight() {
+        return inFlight.values().stream().min(Instant::compareTo).orElse(null);
+    }
+}
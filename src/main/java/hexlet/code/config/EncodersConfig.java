@@ -7,7 +7,11 @@ import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
 import hexlet.code.component.RsaKeyProperties;
+import hexlet.code.util.CachingJwtDecoder;
+import hexlet.code.util.TimedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -17,6 +21,9 @@ import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 
+import java.time.Clock;
+import java.time.Duration;
+
 /**
  * Конфигурационный класс.
  */
@@ -26,14 +33,21 @@ public class EncodersConfig {
     @Autowired
     private RsaKeyProperties rsaKeys;
 
+    @Value("${security.jwt.cache.max-size:10000}")
+    private long jwtCacheMaxSize;
+
+    @Value("${security.jwt.cache.max-ttl:PT1H}")
+    private Duration jwtCacheMaxTtl;
+
     /**
      * Метод passwordEncoder() создает и возвращает объект BCryptPasswordEncoder,
-     * который используется для хэширования паролей.
-     * @return - возвращает объект BCryptPasswordEncoder.
+     * который используется для хэширования паролей, обернутый в замер времени.
+     * @param meterRegistry - реестр метрик для таймеров BCrypt.
+     * @return - возвращает объект TimedPasswordEncoder.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
 
     /**
@@ -50,11 +64,14 @@ public class EncodersConfig {
 
     /**
      * Метод jwtDecoder() создает объект NimbusJwtDecoder,
-     * который используется для декодирования JWT (JSON Web Token) с использованием открытого RSA ключа.
-     * @return - возвращает объект NimbusJwtDecoder.
+     * который используется для декодирования JWT (JSON Web Token) с использованием открытого RSA ключа,
+     * и оборачивает его в кэш проверенных токенов, чтобы подпись проверялась один раз на токен.
+     * @param meterRegistry - реестр метрик для статистики кэша.
+     * @return - возвращает объект CachingJwtDecoder.
      */
     @Bean
-    JwtDecoder jwtDecoder() {
-        return NimbusJwtDecoder.withPublicKey(rsaKeys.getPublicKey()).build();
+    JwtDecoder jwtDecoder(MeterRegistry meterRegistry) {
+        var decoder = NimbusJwtDecoder.withPublicKey(rsaKeys.getPublicKey()).build();
+        return new CachingJwtDecoder(decoder, jwtCacheMaxSize, jwtCacheMaxTtl, Clock.systemUTC(), meterRegistry);
     }
 }
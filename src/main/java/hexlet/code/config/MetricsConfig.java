@@ -0,0 +1,45 @@
+package hexlet.code.config;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Конфигурационный класс метрик.
+ * Метрика http.server.requests получает тег handler (Controller#method), чтобы гистограммы задержек
+ * строились по методам контроллеров, а не только по шаблону URI.
+ */
+@Configuration
+public class MetricsConfig {
+
+    public static final String HANDLER_TAG = "handler";
+
+    /**
+     * Метод создает соглашение об именах и тегах наблюдений HTTP-запросов с дополнительным тегом handler.
+     * @return - возвращает ServerRequestObservationConvention.
+     */
+    @Bean
+    public ServerRequestObservationConvention serverRequestObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context).and(handler(context));
+            }
+        };
+    }
+
+    private static KeyValue handler(ServerRequestObservationContext context) {
+        var request = context.getCarrier();
+        var handler = request == null ? null : request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod method) {
+            return KeyValue.of(HANDLER_TAG, method.getBeanType().getSimpleName() + "#" + method.getMethod().getName());
+        }
+        return KeyValue.of(HANDLER_TAG, "none");
+    }
+}
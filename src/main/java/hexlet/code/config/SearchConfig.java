@@ -0,0 +1,30 @@
+package hexlet.code.config;
+
+import hexlet.code.component.DatabasePlatform;
+import hexlet.code.search.NgramTaskSearchIndex;
+import hexlet.code.search.PostgresTaskSearch;
+import hexlet.code.search.TaskSearch;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/**
+ * Конфигурационный класс выбора реализации поиска задач по используемой СУБД.
+ */
+@Configuration
+public class SearchConfig {
+
+    /**
+     * Метод создает поиск задач: индексы PostgreSQL или встроенный n-граммный индекс для остальных СУБД.
+     * @param databasePlatform - сведения об используемой СУБД.
+     * @param jdbcTemplate - шаблон для выполнения SQL-запросов.
+     * @return - возвращает реализацию TaskSearch.
+     */
+    @Bean
+    public TaskSearch taskSearch(DatabasePlatform databasePlatform, NamedParameterJdbcTemplate jdbcTemplate) {
+        if (databasePlatform.isPostgreSQL()) {
+            return new PostgresTaskSearch(jdbcTemplate);
+        }
+        return new NgramTaskSearchIndex();
+    }
+}
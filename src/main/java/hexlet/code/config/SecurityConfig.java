@@ -45,7 +45,10 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // разрешаем доступ к /api/login, чтобы аутентифицироваться и получить токен
                         .requestMatchers("/api/login").permitAll()
+                        // обновление и отзыв JWT по токену обновления (сам токен проверяет RefreshTokenService)
+                        .requestMatchers("/api/token/refresh", "/api/token/revoke").permitAll()
                         .requestMatchers("/welcome").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
                         .requestMatchers("/").permitAll()
                         .requestMatchers("/index.html").permitAll()
                         .requestMatchers("/assets/**").permitAll()
@@ -0,0 +1,74 @@
+package hexlet.code.config;
+
+import hexlet.code.handler.SqlStatisticsInterceptor;
+import hexlet.code.util.SqlStatistics;
+import hexlet.code.util.SqlStatisticsListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Конфигурационный класс учета SQL по HTTP-запросам.
+ * Источник данных оборачивается прокси datasource-proxy, слушатель которого считает операторы
+ * текущего запроса, а перехватчик SqlStatisticsInterceptor открывает и закрывает статистику запроса.
+ * Декоратор задач переносит статистику запроса в задачи, которые он запускает на applicationTaskExecutor.
+ */
+@Configuration
+public class SqlStatisticsConfig implements WebMvcConfigurer {
+
+    @Value("${sql.statistics.repeat-threshold:5}")
+    private int repeatThreshold;
+
+    @Value("${sql.statistics.log-interval:PT1M}")
+    private Duration logInterval;
+
+    /**
+     * Метод создает постпроцессор, оборачивающий источники данных прокси со слушателем SqlStatisticsListener.
+     * Прокси поддерживает unwrap, поэтому метрики Hikari и VirtualThreadsConfig видят исходный пул.
+     * @return - возвращает BeanPostProcessor.
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new SqlStatisticsListener())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Метод создает декоратор задач пула applicationTaskExecutor (Spring Boot применяет единственный
+     * TaskDecorator к автоматически настроенному пулу): операторы задач, запущенных HTTP-запросом,
+     * учитываются в статистике этого запроса.
+     * @return - возвращает TaskDecorator.
+     */
+    @Bean
+    public TaskDecorator sqlStatisticsTaskDecorator() {
+        return SqlStatistics::propagate;
+    }
+
+    /**
+     * Метод регистрации перехватчика статистики SQL для всех обработчиков.
+     * @param registry - реестр перехватчиков
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SqlStatisticsInterceptor(repeatThreshold, logInterval));
+    }
+}
@@ -0,0 +1,49 @@
+package hexlet.code.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hexlet.code.filter.DatabaseConcurrencyFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Конфигурационный класс режима виртуальных потоков (spring.threads.virtual.enabled=true, профиль virtual).
+ * Tomcat и асинхронные задачи Spring в этом режиме сами переходят на виртуальные потоки,
+ * а здесь регистрируется ограничение числа одновременных API-запросов размером пула JDBC-соединений.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+    @Value("${virtual-threads.db-permits:0}")
+    private int dbPermits;
+
+    @Value("${virtual-threads.db-permit-timeout:PT2S}")
+    private Duration dbPermitTimeout;
+
+    /**
+     * Метод регистрирует фильтр DatabaseConcurrencyFilter для маршрутов /api/*.
+     * Если virtual-threads.db-permits не задан, предел равен максимальному размеру пула Hikari.
+     * @param dataSource - источник данных (пул соединений).
+     * @param meterRegistry - реестр метрик.
+     * @return - возвращает регистрацию фильтра.
+     * @throws SQLException - если источник данных не удалось развернуть до HikariDataSource.
+     */
+    @Bean
+    public FilterRegistrationBean<DatabaseConcurrencyFilter> databaseConcurrencyFilter(
+            DataSource dataSource, MeterRegistry meterRegistry) throws SQLException {
+        var limit = dbPermits > 0 ? dbPermits : dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        var registration = new FilterRegistrationBean<>(
+                new DatabaseConcurrencyFilter(limit, dbPermitTimeout, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
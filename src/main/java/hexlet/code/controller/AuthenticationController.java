@@ -1,14 +1,22 @@
 package hexlet.code.controller;
 
 import hexlet.code.dto.AuthRequest;
+import hexlet.code.dto.RefreshTokenRequest;
+import hexlet.code.dto.TokenPairDTO;
+import hexlet.code.model.User;
+import hexlet.code.service.RefreshTokenService;
 import hexlet.code.util.JWTUtils;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -18,6 +26,8 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api")
 public class AuthenticationController {
 
+    public static final String REFRESH_TOKEN_HEADER = "X-Refresh-Token";
+
     @Autowired
     private JWTUtils jwtUtils;
 
@@ -27,21 +37,50 @@ public class AuthenticationController {
     @Autowired
     private AuthenticationManager authenticationManager;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
     /**
      * Метод выполняет аутентификацию. Аутентификация это POST запрос по пути /api/login.
+     * Кроме JWT-токена в теле ответа, в заголовке X-Refresh-Token выдается токен обновления,
+     * по которому новый JWT получается через /api/token/refresh без повторной проверки пароля.
      * @param authRequest - объект AuthRequest, который содержит поля email и password.
      * @return - возвращается JWT-токен в виде строки
      */
     @PostMapping("/login")
-    public String create(@RequestBody AuthRequest authRequest) {
+    public ResponseEntity<String> create(@RequestBody AuthRequest authRequest) {
         //var authentication = new UsernamePasswordAuthenticationToken(
         //        authRequest.getEmail(), authRequest.getPassword());
         var authentication = new UsernamePasswordAuthenticationToken(
                 authRequest.getUsername(), authRequest.getPassword());
-        authenticationManager.authenticate(authentication);
+        var authenticated = authenticationManager.authenticate(authentication);
 
         //var token = jwtUtils.generateToken(authRequest.getEmail());
         var token = jwtUtils.generateToken(authRequest.getUsername());
-        return token;
+        var refreshToken = refreshTokenService.issue((User) authenticated.getPrincipal());
+        return ResponseEntity.ok()
+                .header(REFRESH_TOKEN_HEADER, refreshToken)
+                .body(token);
+    }
+
+    /**
+     * Метод обновления JWT-токена по токену обновления. POST запрос по пути /api/token/refresh.
+     * Предъявленный токен обновления становится недействительным, взамен выдается новый.
+     * @param request - объект RefreshTokenRequest с токеном обновления.
+     * @return - возвращается новая пара токенов в формате TokenPairDTO
+     */
+    @PostMapping("/token/refresh")
+    public TokenPairDTO refresh(@RequestBody @Valid RefreshTokenRequest request) {
+        return refreshTokenService.refresh(request.getRefreshToken());
+    }
+
+    /**
+     * Метод отзыва токена обновления (выход из системы). POST запрос по пути /api/token/revoke.
+     * @param request - объект RefreshTokenRequest с токеном обновления.
+     */
+    @PostMapping("/token/revoke")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void revoke(@RequestBody @Valid RefreshTokenRequest request) {
+        refreshTokenService.revoke(request.getRefreshToken());
     }
 }
@@ -1,13 +1,22 @@
 package hexlet.code.controller;
 
+import hexlet.code.component.ReferenceDataRegistry;
+import hexlet.code.component.ResourceVersions;
 import hexlet.code.dto.LabelCreateDTO;
 import hexlet.code.dto.LabelDTO;
+import hexlet.code.dto.LabelSummary;
+import hexlet.code.dto.ListingParamsDTO;
 import hexlet.code.dto.LabelUpdateDTO;
 import hexlet.code.exception.ResourceNotFoundException;
 import hexlet.code.mapper.LabelMapper;
+import hexlet.code.model.Label;
 import hexlet.code.repository.LabelRepository;
+import hexlet.code.repository.ProjectionRepository;
+import hexlet.code.service.LabelService;
+import hexlet.code.service.ListingService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -17,51 +26,98 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping(path = "/api")
 public class LabelController {
 
+    private static final Set<String> SORT_KEYS = Set.of("id", "name", "createdAt");
+
     @Autowired
     private LabelRepository labelRepository;
 
+    @Autowired
+    private ReferenceDataRegistry referenceDataRegistry;
+
     @Autowired
     private LabelMapper labelMapper;
 
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private ListingService listingService;
+
+    @Autowired
+    private ProjectionRepository projectionRepository;
+
+    @Autowired
+    private LabelService labelService;
+
     /**
      * Обработчик GET-запроса по маршруту /labels.
+     * Сериализованная страница кэшируется до записи меток; при совпадении If-None-Match возвращается 304 без БД.
+     * Постраничный вывод и сортировка - как в GET /tasks (сортировка по id, name или createdAt).
+     * С параметром withCounts у каждой метки выводится число ее задач (taskCount).
+     * @param params - параметры страницы в формате ListingParamsDTO
+     * @param withCounts - выводить ли число задач меток
+     * @param ifNoneMatch - ETag списка, уже имеющегося у клиента (необязательный)
      * @return - возвращает список меток в формате ResponseEntity.
      */
     @GetMapping(path = "/labels")
     @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<List<LabelDTO>> indexLabels() {
-        var labels = labelRepository.findAll();
-        var result = labels.stream()
-                .map(l -> labelMapper.map(l))
-                .toList();
-        return ResponseEntity.ok()
-                .header("X-Total-Count", String.valueOf(result.size()))
+    public ResponseEntity<byte[]> indexLabels(ListingParamsDTO params,
+            @RequestParam(defaultValue = "false") boolean withCounts,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        var tag = withCounts
+                ? resourceVersions.collectionTag(ResourceVersions.Resource.LABELS, ResourceVersions.Resource.TASKS)
+                : resourceVersions.collectionTag(ResourceVersions.Resource.LABELS);
+        if (ResourceVersions.notModified(ifNoneMatch, tag)) {
+            return ResourceVersions.notModifiedResponse(tag);
+        }
+        var key = List.of(params, withCounts);
+        var body = resourceVersions.cachedList(ResourceVersions.Resource.LABELS, tag, key, () -> {
+            var page = listingService.list(Label.class, LabelSummary.class, SORT_KEYS, params)
+                    .map(l -> labelMapper.map(l));
+            if (withCounts) {
+                labelService.fillTaskCounts(page.items());
+            }
+            return page;
+        });
+        var response = ResponseEntity.ok()
+                .eTag(tag)
+                .header("X-Total-Count", String.valueOf(body.total()));
+        if (body.nextCursor() != null) {
+            response.header(TaskController.NEXT_CURSOR_HEADER, body.nextCursor());
+        }
+        return response
                 .contentType(MediaType.APPLICATION_JSON)
-                .body(result);
+                .body(body.json());
     }
 
     /**
      * Обработчик GET-запроса по маршруту /labels/{id}.
      * @param id - идентификатор метки
+     * @param ifNoneMatch - ETag метки, уже имеющейся у клиента (необязательный)
      * @return - возвращает конкретную метку в формате ResponseEntity.
      */
     @GetMapping(path = "/labels/{id}")
     @ResponseStatus(HttpStatus.OK)
-    public LabelDTO showLabel(@PathVariable Long id) {
-        var label = labelRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Label with id " + id + " not found"));
-        var dto = labelMapper.map(label);
-        return dto;
+    public ResponseEntity<LabelDTO> showLabel(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return resourceVersions.item(ResourceVersions.Resource.LABELS, id, ifNoneMatch, () ->
+                projectionRepository.findProjectedById(Label.class, LabelSummary.class, id)
+                        .map(labelMapper::map)
+                        .orElseThrow(() -> new ResourceNotFoundException("Label with id " + id + " not found")),
+                LabelDTO::getVersion);
     }
 
     /**
@@ -74,6 +130,7 @@ public class LabelController {
     public LabelDTO createLabel(@RequestBody @Valid LabelCreateDTO data) {
         var label = labelMapper.map(data);
         labelRepository.save(label);
+        referenceDataRegistry.invalidateLabels();
         var dto = labelMapper.map(label);
         return dto;
     }
@@ -92,6 +149,7 @@ public class LabelController {
                 .orElseThrow(() -> new ResourceNotFoundException("Label with id " + id + " not found"));
         labelMapper.update(data, label);
         labelRepository.save(label);
+        referenceDataRegistry.invalidateLabels();
         var dto = labelMapper.map(label);
         return dto;
     }
@@ -107,5 +165,6 @@ public class LabelController {
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Label with id " + id + " not found"));
         labelRepository.deleteById(id);
+        referenceDataRegistry.invalidateLabels();
     }
 }
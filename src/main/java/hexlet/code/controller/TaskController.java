@@ -1,42 +1,76 @@
 package hexlet.code.controller;
 
+import hexlet.code.component.ResourceVersions;
+import hexlet.code.dto.BulkResultDTO;
+import hexlet.code.dto.ImportJobDTO;
+import hexlet.code.dto.ListingParamsDTO;
+import hexlet.code.dto.TaskBulkUpdateDTO;
+import hexlet.code.dto.TaskChangesDTO;
 import hexlet.code.dto.TaskCreateDTO;
 import hexlet.code.dto.TaskDTO;
 import hexlet.code.dto.TaskParamsDTO;
+import hexlet.code.dto.TaskStatsDTO;
 import hexlet.code.dto.TaskUpdateDTO;
+import hexlet.code.exception.BadRequestException;
 import hexlet.code.exception.ResourceNotFoundException;
 import hexlet.code.mapper.TaskMapper;
-import hexlet.code.model.TaskStatus;
-import hexlet.code.model.User;
 import hexlet.code.repository.TaskRepository;
 import hexlet.code.repository.TaskStatusRepository;
+import hexlet.code.service.TaskBatchService;
+import hexlet.code.service.TaskBulkService;
+import hexlet.code.service.TaskChangesService;
+import hexlet.code.service.TaskPatchService;
+import hexlet.code.service.TaskCountService;
+import hexlet.code.service.TaskExportService;
+import hexlet.code.service.TaskImportService;
+import hexlet.code.service.TaskSearchService;
+import hexlet.code.service.TaskStatsService;
 import hexlet.code.service.TaskStatusService;
+import hexlet.code.service.TaskStreamService;
+import hexlet.code.specification.TaskSortKey;
 import hexlet.code.specification.TaskSpecification;
+import hexlet.code.util.PageCursor;
 //import io.sentry.Sentry;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 //import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api")
 public class TaskController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    public static final String TOTAL_ESTIMATED_HEADER = "X-Total-Count-Estimated";
+
+    public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
     @Autowired
     private TaskRepository taskRepository;
 
@@ -52,37 +86,257 @@ public class TaskController {
     @Autowired
     private TaskSpecification taskSpecification;
 
+    @Autowired
+    private TaskSearchService taskSearchService;
+
+    @Autowired
+    private TaskBatchService taskBatchService;
+
+    @Autowired
+    private TaskBulkService taskBulkService;
+
+    @Autowired
+    private TaskExportService taskExportService;
+
+    @Autowired
+    private TaskImportService taskImportService;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private TaskStatsService taskStatsService;
+
+    @Autowired
+    private TaskCountService taskCountService;
+
+    @Autowired
+    private TaskStreamService taskStreamService;
+
+    @Autowired
+    private TaskChangesService taskChangesService;
+
+    @Autowired
+    private TaskPatchService taskPatchService;
+
+    @Value("${tasks.page-size.default:10}")
+    private int defaultPageSize;
+
+    @Value("${tasks.page-size.max:100}")
+    private int maxPageSize;
+
     /**
      * Обработчик GET-запроса по маршруту /tasks.
+     * Поддерживает два режима: постраничный (параметр page) и keyset-пагинацию по курсору (параметр after).
+     * В режиме курсора первая страница запрашивается с пустым after, а курсор следующей страницы
+     * возвращается в заголовке X-Next-Cursor (заголовка нет, если страница последняя).
+     * Параметр q включает поиск по названию и описанию: задачи выводятся по убыванию релевантности,
+     * поэтому sort и after вместе с ним не применяются.
+     * Заголовок X-Total-Count содержит общее число задач по фильтру (кэшируется до записи задач), для поиска -
+     * число найденных задач. С count=estimate для списка без фильтров в PostgreSQL выводится оценка
+     * из статистики планировщика и заголовок X-Total-Count-Estimated. Тот же заголовок выводится для поиска
+     * с большим числом кандидатов: X-Total-Count тогда содержит нижнюю оценку числа найденных задач.
      * @param params - параметры запроса в формате TaskParamsDTO&
-     * @param page - номер выводимой страницы
+     * @param listing - номер (page) и размер (size, ограничен сверху значением tasks.page-size.max) страницы,
+     * курсор (after), ключ сортировки (sort: id или createdAt) и ее направление (order)
+     * @param count - режим подсчета общего числа задач: exact или estimate
+     * @param ifNoneMatch - ETag ответа, уже имеющегося у клиента (необязательный)
      * @return - возвращает список пользователей в формате ResponseEntity.
      */
     @GetMapping(path = "/tasks")
     @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<List<TaskDTO>> index(TaskParamsDTO params, @RequestParam(defaultValue = "1") int page) {
+    public ResponseEntity<List<TaskDTO>> index(TaskParamsDTO params,
+                                               ListingParamsDTO listing,
+                                               @RequestParam(defaultValue = "exact") String count,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                               String ifNoneMatch) {
+        var countMode = TaskCountService.Mode.of(count);
+        var tag = resourceVersions.collectionTag(ResourceVersions.Resource.TASKS);
+        if (ResourceVersions.notModified(ifNoneMatch, tag)) {
+            return ResourceVersions.notModifiedResponse(tag);
+        }
+        var page = listing.getPage();
+        var after = listing.getAfter();
+        var sort = listing.getSort();
+        var order = listing.getOrder();
+        var pageSize = resolvePageSize(listing.getSize());
         var specification = taskSpecification.build(params);
-        var tasks = taskRepository.findAll(specification, PageRequest.of(page - 1, 10));
-        var resultPage = tasks.map(taskMapper::map);
-        var bodyResponse = resultPage.getContent();
-        return ResponseEntity.ok()
-                .header("X-Total-Count", String.valueOf(bodyResponse.size()))
+        if (params.getQ() != null && !params.getQ().isBlank()) {
+            if (after != null) {
+                throw new BadRequestException("Cursor pagination is not supported together with search");
+            }
+            var found = taskSearchService.search(params.getQ(), params,
+                    (long) Math.max(page - 1, 0) * pageSize, pageSize);
+            return withTotal(ResponseEntity.ok().eTag(tag), found.total())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(found.items());
+        }
+        if (after == null) {
+            var sortOrder = TaskSortKey.of(sort).toSort(resolveDirection(order));
+            var pageable = PageRequest.of(Math.max(page - 1, 0), pageSize, sortOrder);
+            var bodyResponse = taskRepository.findTaskDTOs(specification, pageable.getSort(),
+                    pageable.getOffset(), pageable.getPageSize());
+            return withTotal(ResponseEntity.ok().eTag(tag), taskCountService.count(params, countMode))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(bodyResponse);
+        }
+
+        var cursor = after.isEmpty() ? null : PageCursor.decode(after);
+        var sortKey = cursor == null ? TaskSortKey.of(sort) : TaskSortKey.of(cursor.getSortKey());
+        var direction = cursor == null ? resolveDirection(order) : cursor.getDirection();
+        var tasks = taskRepository.findTaskDTOs(specification.and(taskSpecification.after(cursor)),
+                sortKey.toSort(direction), 0, pageSize + 1);
+        var bodyResponse = tasks.subList(0, Math.min(tasks.size(), pageSize));
+        var response = withTotal(ResponseEntity.ok().eTag(tag), taskCountService.count(params, countMode));
+        if (tasks.size() > pageSize) {
+            var last = bodyResponse.get(bodyResponse.size() - 1);
+            var nextCursor = new PageCursor(sortKey.getAttribute(), direction, sortKey.valueOf(last), last.getId());
+            response.header(NEXT_CURSOR_HEADER, nextCursor.encode());
+        }
+        return response
                 .contentType(MediaType.APPLICATION_JSON)
                 .body(bodyResponse);
     }
 
+    /**
+     * Обработчик GET-запроса по маршруту /tasks/export (выгрузка всех задач, подходящих под фильтр).
+     * Ответ формируется потоково, по мере чтения задач из базы.
+     * @param params - фильтр задач в формате TaskParamsDTO (как в GET /tasks, без q)
+     * @param format - формат выгрузки: ndjson или csv
+     * @return - возвращает поток задач в выбранном формате.
+     */
+    @GetMapping(path = "/tasks/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(TaskParamsDTO params,
+                                                             @RequestParam(defaultValue = "ndjson") String format) {
+        if (params.getQ() != null) {
+            throw new BadRequestException("Search query is not supported by export");
+        }
+        var exportFormat = TaskExportService.Format.of(format);
+        var specification = taskSpecification.build(params);
+        StreamingResponseBody body = out -> taskExportService.export(specification, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=tasks." + exportFormat.getExtension())
+                .body(body);
+    }
+
+    /**
+     * Обработчик GET-запроса по маршруту /tasks/stats (число задач всего, по статусам, исполнителям и меткам).
+     * Результат для одного набора фильтров кэшируется на короткое время (tasks.stats.ttl).
+     * @param params - фильтр задач в формате TaskParamsDTO (как в GET /tasks, без q)
+     * @return - возвращает статистику в формате TaskStatsDTO.
+     */
+    @GetMapping(path = "/tasks/stats")
+    @ResponseStatus(HttpStatus.OK)
+    public TaskStatsDTO showStats(TaskParamsDTO params) {
+        if (params.getQ() != null) {
+            throw new BadRequestException("Search query is not supported by stats");
+        }
+        return taskStatsService.getStats(params);
+    }
+
+    /**
+     * Обработчик GET-запроса по маршруту /tasks/changes (изменения задач после watermark для синхронизации).
+     * Без since возвращаются все задачи. Ответ содержит watermark для следующего запроса; has_more = true
+     * означает, что следующую порцию можно запросить сразу. Если since старше срока хранения отметок
+     * об удалении (tasks.changes.tombstone-retention), возвращается 410 и задачи нужно перечитать с начала.
+     * @param since - watermark из предыдущего ответа (необязательный)
+     * @param size - максимальное число изменений в ответе (ограничено tasks.changes.page-size.max)
+     * @return - возвращает изменения в формате TaskChangesDTO.
+     */
+    @GetMapping(path = "/tasks/changes")
+    @ResponseStatus(HttpStatus.OK)
+    public TaskChangesDTO showChanges(@RequestParam(required = false) String since,
+                                      @RequestParam(required = false) Integer size) {
+        return taskChangesService.findChanges(since, size);
+    }
+
+    /**
+     * Обработчик GET-запроса по маршруту /tasks/stream (изменения задач в формате server-sent events).
+     * События created и updated содержат задачу в формате TaskDTO и приходят только для задач, подходящих
+     * под фильтр; removed (задача изменена и под фильтр не подходит) и deleted содержат только id задачи.
+     * После переподключения с заголовком Last-Event-ID пропущенные события досылаются из буфера последних
+     * изменений, а если их там уже нет - приходит событие reset, и список нужно перечитать через GET /tasks.
+     * @param params - фильтр задач в формате TaskParamsDTO (как в GET /tasks, без q)
+     * @param lastEventId - id последнего полученного события (необязательный)
+     * @return - возвращает поток событий.
+     */
+    @GetMapping(path = "/tasks/stream")
+    public SseEmitter streamTasks(TaskParamsDTO params,
+                                  @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId) {
+        if (params.getQ() != null) {
+            throw new BadRequestException("Search query is not supported by stream");
+        }
+        return taskStreamService.subscribe(params, lastEventId);
+    }
+
+    /**
+     * Обработчик POST-запроса по маршруту /tasks/import (потоковая загрузка задач из тела запроса).
+     * Тело читается по мере сохранения порций задач; ответ содержит итоговое состояние задания.
+     * Если задание завершилось со статусом FAILED, тот же файл можно отправить повторно с jobId:
+     * загрузка продолжится с первой незафиксированной записи.
+     * @param body - тело запроса (NDJSON или CSV с заголовком)
+     * @param format - формат тела: ndjson или csv
+     * @param jobId - идентификатор прерванного задания (необязательный)
+     * @return - возвращает состояние задания в формате ImportJobDTO.
+     */
+    @PostMapping(path = "/tasks/import")
+    @ResponseStatus(HttpStatus.OK)
+    public ImportJobDTO importTasks(InputStream body,
+                                    @RequestParam(defaultValue = "ndjson") String format,
+                                    @RequestParam(required = false) Long jobId) {
+        return taskImportService.importTasks(body, TaskExportService.Format.of(format), jobId, job -> { });
+    }
+
+    /**
+     * Обработчик GET-запроса по маршруту /tasks/import/{jobId} (состояние задания загрузки).
+     * @param jobId - идентификатор задания
+     * @return - возвращает состояние задания в формате ImportJobDTO.
+     */
+    @GetMapping(path = "/tasks/import/{jobId}")
+    @ResponseStatus(HttpStatus.OK)
+    public ImportJobDTO showImportJob(@PathVariable Long jobId) {
+        return taskImportService.findJob(jobId);
+    }
+
+    private static ResponseEntity.BodyBuilder withTotal(ResponseEntity.BodyBuilder response,
+                                                        TaskCountService.Total total) {
+        response.header(TOTAL_COUNT_HEADER, String.valueOf(total.value()));
+        if (total.estimated()) {
+            response.header(TOTAL_ESTIMATED_HEADER, "true");
+        }
+        return response;
+    }
+
+    private Sort.Direction resolveDirection(String order) {
+        return Sort.Direction.fromOptionalString(order)
+                .orElseThrow(() -> new BadRequestException("Unsupported sort order " + order));
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new BadRequestException("Page size must be positive");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
     /**
      * Обработчик GET-запроса по маршруту /tasks/{id}.
      * @param id - идентификатор задачи
+     * @param ifNoneMatch - ETag задачи, уже имеющейся у клиента (необязательный)
      * @return - возвращает конкретную задачу в формате ResponseEntity.
      */
     @GetMapping(path = "/tasks/{id}")
     @ResponseStatus(HttpStatus.OK)
-    public TaskDTO showTask(@PathVariable Long id) {
-        var task = taskRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Task with id " + id + " not found"));
-        var dto = taskMapper.map(task);
-        return dto;
+    public ResponseEntity<TaskDTO> showTask(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return resourceVersions.item(ResourceVersions.Resource.TASKS, id, ifNoneMatch, () ->
+                taskRepository.findTaskDTOById(id)
+                        .orElseThrow(() -> new ResourceNotFoundException("Task with id " + id + " not found")),
+                TaskDTO::getVersion);
     }
 
     /**
@@ -95,18 +349,46 @@ public class TaskController {
     public TaskDTO createTask(@RequestBody @Valid TaskCreateDTO data) {
         var task = taskMapper.map(data);
         taskRepository.save(task);
-        TaskStatus taskStatus = task.getTaskStatus();
-        if (taskStatus != null) {
-            taskStatus.addTask(task);
-        }
-        User userTask = task.getAssignee();
-        if (userTask != null) {
-            userTask.addTask(task);
-        }
         var dto = taskMapper.map(task);
         return dto;
     }
 
+    /**
+     * Обработчик POST-запроса по маршруту /tasks/batch (пакетное создание задач).
+     * Пакет сохраняется целиком или не сохраняется вовсе: при ошибках в элементах возвращается 422
+     * со списком ошибок по позициям элементов.
+     * @param data - массив создаваемых задач в формате TaskCreateDTO
+     * @return - возвращает созданные задачи в порядке запроса.
+     */
+    @PostMapping(path = "/tasks/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<TaskDTO> createTasks(@RequestBody List<TaskCreateDTO> data) {
+        return taskBatchService.createAll(data);
+    }
+
+    /**
+     * Обработчик PATCH-запроса по маршруту /tasks/bulk (массовое изменение задач по фильтру).
+     * @param params - фильтр задач в формате TaskParamsDTO (как в GET /tasks, хотя бы одно поле обязательно)
+     * @param data - изменения статуса, исполнителя и меток в формате TaskBulkUpdateDTO
+     * @return - возвращает число затронутых задач.
+     */
+    @PatchMapping(path = "/tasks/bulk")
+    @ResponseStatus(HttpStatus.OK)
+    public BulkResultDTO updateTasks(TaskParamsDTO params, @RequestBody TaskBulkUpdateDTO data) {
+        return taskBulkService.update(params, data);
+    }
+
+    /**
+     * Обработчик DELETE-запроса по маршруту /tasks/bulk (массовое удаление задач по фильтру).
+     * @param params - фильтр задач в формате TaskParamsDTO (как в GET /tasks, хотя бы одно поле обязательно)
+     * @return - возвращает число удаленных задач.
+     */
+    @DeleteMapping(path = "/tasks/bulk")
+    @ResponseStatus(HttpStatus.OK)
+    public BulkResultDTO deleteTasks(TaskParamsDTO params) {
+        return taskBulkService.delete(params);
+    }
+
     /**
      * Обработчик PUT-запроса по маршруту /tasks/{id}.
      * @param id - идентификатор задачи
@@ -117,7 +399,7 @@ public class TaskController {
     @ResponseStatus(HttpStatus.OK)
     public TaskDTO updateTask(@Valid @RequestBody TaskUpdateDTO data,
                                               @PathVariable Long id) {
-        var task = taskRepository.findById(id)
+        var task = taskRepository.findWithRelationsById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Task with id " + id + " not found"));
         taskMapper.update(data, task);
         taskRepository.save(task);
@@ -125,6 +407,20 @@ public class TaskController {
         return dto;
     }
 
+    /**
+     * Обработчик PATCH-запроса по маршруту /tasks/{id} (изменение только переданных полей).
+     * В отличие от PUT задача не загружается: поля записываются одной командой UPDATE,
+     * метки - разницей строк task_label, а ответ читается проекцией.
+     * @param id - идентификатор задачи
+     * @param data - изменения задачи в формате TaskUpdateDTO
+     * @return - возвращает измененную задачу в формате TaskDTO.
+     */
+    @PatchMapping(path = "/tasks/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    public TaskDTO patchTask(@Valid @RequestBody TaskUpdateDTO data, @PathVariable Long id) {
+        return taskPatchService.patch(id, data);
+    }
+
     /**
      * Обработчик DELETE-запроса по маршруту /tasks/{id}.
      * @param id - идентификатор задачи
@@ -132,8 +428,9 @@ public class TaskController {
     @DeleteMapping(path = "/tasks/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteTask(@PathVariable Long id) {
-        var task = taskRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Task with id " + id + " not found"));
-        taskRepository.deleteById(id);
+        if (!taskRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Task with id " + id + " not found");
+        }
+        taskBulkService.delete(id);
     }
 }
@@ -1,13 +1,20 @@
 package hexlet.code.controller;
 
+import hexlet.code.component.ReferenceDataRegistry;
+import hexlet.code.component.ResourceVersions;
+import hexlet.code.dto.ListingParamsDTO;
 import hexlet.code.dto.TaskStatusCreateDTO;
 import hexlet.code.dto.TaskStatusDTO;
+import hexlet.code.dto.TaskStatusSummary;
 import hexlet.code.dto.TaskStatusUpdateDTO;
 import hexlet.code.exception.ResourceNotFoundException;
 import hexlet.code.mapper.TaskStatusMapper;
+import hexlet.code.model.TaskStatus;
 import hexlet.code.repository.TaskStatusRepository;
+import hexlet.code.service.ListingService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -17,51 +24,79 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api")
 public class TaskStatusController {
 
+    private static final Set<String> SORT_KEYS = Set.of("id", "name", "slug", "createdAt");
+
     @Autowired
     private TaskStatusRepository repository;
 
+    @Autowired
+    private ReferenceDataRegistry referenceDataRegistry;
+
     @Autowired
     private TaskStatusMapper mapper;
 
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private ListingService listingService;
+
     /**
      * Обработчик GET-запроса по маршруту /task_statuses.
+     * Сериализованная страница кэшируется до записи статусов; при совпадении If-None-Match возвращается 304 без БД.
+     * Постраничный вывод и сортировка - как в GET /tasks (сортировка по id, name, slug или createdAt).
+     * @param params - параметры страницы в формате ListingParamsDTO
+     * @param ifNoneMatch - ETag списка, уже имеющегося у клиента (необязательный)
      * @return - возвращает список пользователей в формате ResponseEntity.
      */
     @GetMapping(path = "/task_statuses")
     @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<List<TaskStatusDTO>> indexTaskStatuses() {
-        var taskStatuses = repository.findAll();
-        var result = taskStatuses.stream()
-                .map(mapper::map)
-                .toList();
-        return ResponseEntity.ok()
-                .header("X-Total-Count", String.valueOf(result.size()))
+    public ResponseEntity<byte[]> indexTaskStatuses(ListingParamsDTO params,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        var tag = resourceVersions.collectionTag(ResourceVersions.Resource.TASK_STATUSES);
+        if (ResourceVersions.notModified(ifNoneMatch, tag)) {
+            return ResourceVersions.notModifiedResponse(tag);
+        }
+        var body = resourceVersions.cachedList(ResourceVersions.Resource.TASK_STATUSES, tag, params, () ->
+                listingService.list(TaskStatus.class, TaskStatusSummary.class, SORT_KEYS, params)
+                        .map(mapper::map));
+        var response = ResponseEntity.ok()
+                .eTag(tag)
+                .header("X-Total-Count", String.valueOf(body.total()));
+        if (body.nextCursor() != null) {
+            response.header(TaskController.NEXT_CURSOR_HEADER, body.nextCursor());
+        }
+        return response
                 .contentType(MediaType.APPLICATION_JSON)
-                .body(result);
+                .body(body.json());
     }
 
     /**
      * Обработчик GET-запроса по маршруту /task_statuses/{id}.
      * @param id - идентификатор статуса
+     * @param ifNoneMatch - ETag статуса, уже имеющегося у клиента (необязательный)
      * @return - возвращает конкретную задачу в формате ResponseEntity.
      */
     @GetMapping(path = "/task_statuses/{id}")
     @ResponseStatus(HttpStatus.OK)
-    public TaskStatusDTO showTaskStatus(@PathVariable Long id) {
-        var taskStatus = repository.findById(id)
-               .orElseThrow(() -> new ResourceNotFoundException("TaskStatus with id " + id + " not found"));
-        var dto = mapper.map(taskStatus);
-        return dto;
+    public ResponseEntity<TaskStatusDTO> showTaskStatus(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return resourceVersions.item(ResourceVersions.Resource.TASK_STATUSES, id, ifNoneMatch, () ->
+                repository.findById(id)
+                        .map(mapper::map)
+                        .orElseThrow(() -> new ResourceNotFoundException("TaskStatus with id " + id + " not found")),
+                TaskStatusDTO::getVersion);
     }
 
     /**
@@ -74,6 +109,7 @@ public class TaskStatusController {
     public TaskStatusDTO createTaskStatus(@RequestBody @Valid TaskStatusCreateDTO data) {
         var taskStatus = mapper.map(data);
         repository.save(taskStatus);
+        referenceDataRegistry.invalidateStatuses();
         var dto = mapper.map(taskStatus);
         return dto;
     }
@@ -93,6 +129,7 @@ public class TaskStatusController {
                     "TaskStatus with id " + id + " not found"));
         mapper.update(data, taskStatus);
         repository.save(taskStatus);
+        referenceDataRegistry.invalidateStatuses();
         var dto = mapper.map(taskStatus);
         return dto;
     }
@@ -108,5 +145,6 @@ public class TaskStatusController {
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "TaskStatus with id " + id + " not found"));
         repository.deleteById(id);
+        referenceDataRegistry.invalidateStatuses();
     }
 }
@@ -1,16 +1,23 @@
 package hexlet.code.controller;
 
+import hexlet.code.component.ResourceVersions;
+import hexlet.code.dto.ListingParamsDTO;
 import hexlet.code.dto.UserCreateDTO;
 import hexlet.code.dto.UserDTO;
+import hexlet.code.dto.UserSummary;
 import hexlet.code.dto.UserUpdateDTO;
 import hexlet.code.exception.ResourceNotFoundException;
 import hexlet.code.mapper.JsonNullableMapper;
 import hexlet.code.mapper.UserMapper;
+import hexlet.code.model.User;
 import hexlet.code.repository.UserRepository;
 import hexlet.code.service.CustomUserDetailService;
+import hexlet.code.service.ListingService;
+import hexlet.code.service.RefreshTokenService;
 import hexlet.code.util.UserUtils;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -22,16 +29,20 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api")
 public class UsersController {
 
+    private static final Set<String> SORT_KEYS = Set.of("id", "email", "createdAt");
+
     @Autowired
     private UserRepository userRepository;
 
@@ -50,35 +61,59 @@ public class UsersController {
     @Autowired
     private UserUtils userUtils;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private ListingService listingService;
+
     /**
      * Обработчик GET-запроса по маршруту /users.
+     * Постраничный вывод и сортировка - как в GET /tasks (сортировка по id, email или createdAt);
+     * читаются только столбцы UserDTO, а X-Total-Count содержит общее число пользователей.
+     * @param params - параметры страницы в формате ListingParamsDTO
+     * @param ifNoneMatch - ETag списка, уже имеющегося у клиента (необязательный)
      * @return - возвращает список пользователей в формате ResponseEntity.
      */
     @GetMapping("/users")
     @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<List<UserDTO>> indexOfUsers() {
-        var users = userRepository.findAll();
-        var result = users.stream()
-                .map(user -> userMapper.map(user))
-                .toList();
-        return ResponseEntity.ok()
-                .header("X-Total-Count", String.valueOf(result.size()))
+    public ResponseEntity<List<UserDTO>> indexOfUsers(ListingParamsDTO params,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        var tag = resourceVersions.collectionTag(ResourceVersions.Resource.USERS);
+        if (ResourceVersions.notModified(ifNoneMatch, tag)) {
+            return ResourceVersions.notModifiedResponse(tag);
+        }
+        var page = listingService.list(User.class, UserSummary.class, SORT_KEYS, params)
+                .map(user -> userMapper.map(user));
+        var response = ResponseEntity.ok()
+                .eTag(tag)
+                .header("X-Total-Count", String.valueOf(page.total()));
+        if (page.nextCursor() != null) {
+            response.header(TaskController.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response
                 .contentType(MediaType.APPLICATION_JSON)
-                .body(result);
+                .body(page.items());
     }
 
     /**
      * Обработчик GET-запроса по маршруту /users/{id}.
      * @param id - идентификатор пользователя
+     * @param ifNoneMatch - ETag пользователя, уже имеющегося у клиента (необязательный)
      * @return - возвращает конкретного пользователя в формате ResponseEntity.
      */
     @GetMapping("/users/{id}")
     @ResponseStatus(HttpStatus.OK)
-    public UserDTO showUser(@PathVariable Long id) {
-        var user = userRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("User with id " + id + " not found"));
-        var userDTO = userMapper.map(user);
-        return userDTO;
+    public ResponseEntity<UserDTO> showUser(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return resourceVersions.item(ResourceVersions.Resource.USERS, id, ifNoneMatch, () ->
+                userRepository.findById(id)
+                        .map(userMapper::map)
+                        .orElseThrow(() -> new ResourceNotFoundException("User with id " + id + " not found")),
+                UserDTO::getVersion);
     }
 
     /**
@@ -107,6 +142,9 @@ public class UsersController {
                 .orElseThrow(() -> new ResourceNotFoundException("User with id " + id + " not found"));
         userMapper.update(dto, user);
         userRepository.save(user);
+        if (dto.getPassword() != null && dto.getPassword().isPresent()) {
+            refreshTokenService.revokeAll(user);
+        }
         var userDTO = userMapper.map(user);
         return userDTO;
     }
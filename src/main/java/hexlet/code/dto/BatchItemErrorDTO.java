@@ -0,0 +1,23 @@
+package hexlet.code.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Map;
+
+/**
+ * Объект BatchItemErrorDTO - ошибки одного элемента пакетного запроса.
+ * Содержит позицию элемента в массиве запроса и сообщения об ошибках по полям.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemErrorDTO {
+
+    private int index;
+
+    private Map<String, String> errors;
+}
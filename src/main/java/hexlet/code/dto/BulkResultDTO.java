@@ -0,0 +1,18 @@
+package hexlet.code.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Объект BulkResultDTO - результат массовой операции: число затронутых задач.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkResultDTO {
+
+    private long affected;
+}
@@ -0,0 +1,37 @@
+package hexlet.code.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Объект ImportJobDTO - состояние задания загрузки задач.
+ * processed - число обработанных и зафиксированных записей входного файла (imported + rejected),
+ * rejections - первые сообщения об отклоненных записях (с номером записи во входном файле).
+ */
+@Getter
+@Setter
+public class ImportJobDTO {
+
+    private Long id;
+
+    private String format;
+
+    private String status;
+
+    private long processed;
+
+    private long imported;
+
+    private long rejected;
+
+    private List<String> rejections;
+
+    private String error;
+
+    private Instant createdAt;
+
+    private Instant updatedAt;
+}
@@ -1,5 +1,7 @@
 package hexlet.code.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -14,4 +16,10 @@ public class LabelDTO {
     private String name;
 
     private LocalDate createdAt;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long taskCount;
+
+    @JsonIgnore
+    private Long version;
 }
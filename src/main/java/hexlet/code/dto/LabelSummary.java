@@ -0,0 +1,14 @@
+package hexlet.code.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Проекция метки для списка: только столбцы LabelDTO (без связанных задач).
+ * Имена компонентов совпадают с именами атрибутов сущности Label.
+ * @param id - идентификатор
+ * @param name - имя метки
+ * @param createdAt - дата создания
+ * @param version - версия строки (для ETag)
+ */
+public record LabelSummary(Long id, String name, LocalDate createdAt, Long version) {
+}
@@ -0,0 +1,24 @@
+package hexlet.code.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Страница списка с общим числом записей и курсором следующей страницы.
+ * @param items - записи страницы
+ * @param total - общее число записей (отдельный запрос count)
+ * @param nextCursor - курсор следующей страницы (null, если страница последняя или курсор не запрашивался)
+ * @param <T> - тип записей
+ */
+public record ListingPage<T>(List<T> items, long total, String nextCursor) {
+
+    /**
+     * Метод преобразования записей страницы.
+     * @param mapper - преобразование одной записи
+     * @param <R> - тип преобразованных записей
+     * @return - возвращает страницу с преобразованными записями
+     */
+    public <R> ListingPage<R> map(Function<T, R> mapper) {
+        return new ListingPage<>(items.stream().map(mapper).toList(), total, nextCursor);
+    }
+}
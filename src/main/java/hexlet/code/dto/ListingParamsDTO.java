@@ -0,0 +1,21 @@
+package hexlet.code.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+public class ListingParamsDTO {
+
+    private int page = 1;
+
+    private Integer size;
+
+    private String after;
+
+    private String sort = "id";
+
+    private String order = "asc";
+}
@@ -0,0 +1,17 @@
+package hexlet.code.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Объект RefreshTokenRequest для обновления или отзыва токена.
+ * Содержит поле refreshToken.
+ */
+@Getter
+@Setter
+public class RefreshTokenRequest {
+
+    @NotBlank
+    private String refreshToken;
+}
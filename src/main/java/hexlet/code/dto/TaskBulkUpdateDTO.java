@@ -0,0 +1,26 @@
+package hexlet.code.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+import org.openapitools.jackson.nullable.JsonNullable;
+
+import java.util.List;
+
+/**
+ * Объект TaskBulkUpdateDTO - изменения, применяемые ко всем задачам, подходящим под фильтр.
+ * Непереданные поля не меняются; assignee_id = null снимает исполнителя.
+ */
+@Getter
+@Setter
+public class TaskBulkUpdateDTO {
+
+    private JsonNullable<String> status = JsonNullable.undefined();
+
+    @JsonProperty("assignee_id")
+    private JsonNullable<Long> assigneeId = JsonNullable.undefined();
+
+    private List<Long> addLabelIds;
+
+    private List<Long> removeLabelIds;
+}
@@ -0,0 +1,33 @@
+package hexlet.code.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Объект TaskChangeDTO - одно изменение задачи в ответе GET /api/tasks/changes:
+ * upsert (задача создана или изменена, task - ее текущее состояние) или delete (задача удалена).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskChangeDTO {
+
+    public static final String UPSERT = "upsert";
+
+    public static final String DELETE = "delete";
+
+    private String type;
+
+    private Long id;
+
+    @JsonProperty("changed_at")
+    private Instant changedAt;
+
+    private TaskDTO task;
+}
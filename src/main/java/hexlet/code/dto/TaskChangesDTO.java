@@ -0,0 +1,23 @@
+package hexlet.code.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Объект TaskChangesDTO - ответ GET /api/tasks/changes: изменения задач после переданного watermark
+ * в порядке записи и watermark для следующего запроса (has_more - изменения получены не все).
+ */
+@Getter
+@Setter
+public class TaskChangesDTO {
+
+    private List<TaskChangeDTO> changes;
+
+    private String watermark;
+
+    @JsonProperty("has_more")
+    private boolean hasMore;
+}
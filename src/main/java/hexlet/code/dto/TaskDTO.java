@@ -1,5 +1,6 @@
 package hexlet.code.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
 import lombok.Setter;
@@ -28,4 +29,10 @@ public class TaskDTO {
     //private Long assignee_id;
 
     private List<Long> taskLabelIds;
+
+    /**
+     * Версия строки задачи: из нее строится ETag, клиенту в теле не выводится.
+     */
+    @JsonIgnore
+    private Long version;
 }
@@ -0,0 +1,29 @@
+package hexlet.code.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Объект TaskImportRecord - одна запись загружаемого файла задач.
+ * Статус задается слагом, метки - именами, исполнитель - email (а не идентификаторами этой базы).
+ */
+@Getter
+@Setter
+public class TaskImportRecord {
+
+    private Long index;
+
+    private String title;
+
+    private String content;
+
+    private String status;
+
+    private List<String> labels;
+
+    @JsonProperty("assignee_email")
+    private String assigneeEmail;
+}
@@ -14,4 +14,6 @@ public class TaskParamsDTO {
     private String status;
 
     private Long labelId;
+
+    private String q;
 }
@@ -0,0 +1,25 @@
+package hexlet.code.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+public class TaskStatsDTO {
+
+    private long total;
+
+    @JsonProperty("by_status")
+    private Map<String, Long> byStatus;
+
+    @JsonProperty("by_assignee")
+    private Map<Long, Long> byAssignee;
+
+    private long unassigned;
+
+    @JsonProperty("by_label")
+    private Map<Long, Long> byLabel;
+}
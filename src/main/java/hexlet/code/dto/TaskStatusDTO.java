@@ -1,5 +1,6 @@
 package hexlet.code.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -16,4 +17,7 @@ public class TaskStatusDTO {
     private String slug;
 
     private LocalDate createdAt;
+
+    @JsonIgnore
+    private Long version;
 }
@@ -0,0 +1,14 @@
+package hexlet.code.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Проекция статуса задачи для списка: только столбцы TaskStatusDTO (без связанных задач).
+ * Имена компонентов совпадают с именами атрибутов сущности TaskStatus.
+ * @param id - идентификатор
+ * @param name - имя статуса
+ * @param slug - slug статуса
+ * @param createdAt - дата создания
+ */
+public record TaskStatusSummary(Long id, String name, String slug, LocalDate createdAt) {
+}
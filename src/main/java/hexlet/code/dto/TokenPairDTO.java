@@ -0,0 +1,20 @@
+package hexlet.code.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Объект TokenPairDTO - выданная пара токенов: JWT доступа и новый токен обновления.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenPairDTO {
+
+    private String accessToken;
+
+    private String refreshToken;
+}
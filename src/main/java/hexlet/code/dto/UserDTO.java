@@ -1,5 +1,6 @@
 package hexlet.code.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -19,4 +20,7 @@ public class UserDTO {
     private LocalDate createdAt;
 
     private LocalDate updatedAt;
+
+    @JsonIgnore
+    private Long version;
 }
@@ -0,0 +1,17 @@
+package hexlet.code.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Проекция пользователя для списка: только столбцы UserDTO (без хэша пароля и связей).
+ * Имена компонентов совпадают с именами атрибутов сущности User.
+ * @param id - идентификатор
+ * @param firstName - имя
+ * @param lastName - фамилия
+ * @param email - адрес электронной почты
+ * @param createdAt - дата создания
+ * @param updatedAt - дата изменения
+ */
+public record UserSummary(Long id, String firstName, String lastName, String email,
+                          LocalDate createdAt, LocalDate updatedAt) {
+}
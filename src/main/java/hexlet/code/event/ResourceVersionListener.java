@@ -0,0 +1,42 @@
+package hexlet.code.event;
+
+import hexlet.code.component.ResourceVersions;
+import hexlet.code.model.BaseEntity;
+import hexlet.code.model.Label;
+import hexlet.code.model.TaskStatus;
+import hexlet.code.model.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA-слушатель меток, статусов и пользователей, сбрасывающий их версии для ETag после каждой записи.
+ * Версии задач сбрасываются по TaskChangedEvent, который публикуется и при массовых изменениях.
+ */
+@Component
+public class ResourceVersionListener {
+
+    @Lazy
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    /**
+     * Метод вызывается после сохранения, изменения или удаления сущности.
+     * @param entity - записанная сущность
+     */
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void afterWrite(BaseEntity entity) {
+        if (entity instanceof Label label) {
+            resourceVersions.changed(ResourceVersions.Resource.LABELS, label.getId());
+        } else if (entity instanceof TaskStatus status) {
+            resourceVersions.changed(ResourceVersions.Resource.TASK_STATUSES, status.getId());
+        } else if (entity instanceof User user) {
+            resourceVersions.changed(ResourceVersions.Resource.USERS, user.getId());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package hexlet.code.event;
+
+import hexlet.code.dto.TaskDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Событие изменения задачи (создание, изменение, удаление).
+ * Публикуется из путей записи задач; слушатели обрабатывают его после фиксации транзакции.
+ * Массовое изменение или удаление задач по фильтру публикует одно событие без идентификатора задачи
+ * (isBulk): какие задачи затронуты, слушателю не известно.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskChangedEvent {
+
+    /**
+     * Вид изменения задачи.
+     */
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+
+    /**
+     * Идентификатор задачи (null для массового изменения).
+     */
+    private final Long taskId;
+
+    /**
+     * Состояние задачи после изменения (null для удаленной задачи или если состояние не известно).
+     */
+    private final TaskDTO task;
+
+    /**
+     * Метод создания события массового изменения или удаления задач по фильтру.
+     * @param type - вид изменения (UPDATED или DELETED)
+     * @return - возвращает событие без идентификатора и состояния задачи
+     */
+    public static TaskChangedEvent bulk(Type type) {
+        return new TaskChangedEvent(type, null, null);
+    }
+
+    /**
+     * Метод проверки, что событие описывает массовое изменение задач.
+     * @return - возвращает true, если затронутые задачи не известны
+     */
+    public boolean isBulk() {
+        return taskId == null;
+    }
+}
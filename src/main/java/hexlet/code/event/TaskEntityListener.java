@@ -0,0 +1,75 @@
+package hexlet.code.event;
+
+import hexlet.code.component.TaskWriteTracker;
+import hexlet.code.mapper.TaskMapper;
+import hexlet.code.model.Task;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA-слушатель сущности Task, публикующий TaskChangedEvent при каждой записи задачи через JPA.
+ * Массовые изменения в обход JPA публикуют событие сами.
+ * Перед записью время изменения, выставленное @LastModifiedDate (AuditingEntityListener объявлен раньше),
+ * учитывается в TaskWriteTracker до фиксации транзакции.
+ */
+@Component
+public class TaskEntityListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Lazy
+    @Autowired
+    private TaskMapper taskMapper;
+
+    @Autowired
+    private TaskWriteTracker writeTracker;
+
+    /**
+     * Метод вызывается перед сохранением или изменением задачи.
+     * @param task - записываемая задача
+     */
+    @PrePersist
+    @PreUpdate
+    public void beforeWrite(Task task) {
+        writeTracker.track(task.getUpdatedAt());
+    }
+
+    /**
+     * Метод вызывается после сохранения новой задачи.
+     * @param task - сохраненная задача
+     */
+    @PostPersist
+    public void afterCreate(Task task) {
+        publish(TaskChangedEvent.Type.CREATED, task);
+    }
+
+    /**
+     * Метод вызывается после изменения задачи.
+     * @param task - измененная задача
+     */
+    @PostUpdate
+    public void afterUpdate(Task task) {
+        publish(TaskChangedEvent.Type.UPDATED, task);
+    }
+
+    /**
+     * Метод вызывается после удаления задачи.
+     * @param task - удаленная задача
+     */
+    @PostRemove
+    public void afterDelete(Task task) {
+        eventPublisher.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.DELETED, task.getId(), null));
+    }
+
+    private void publish(TaskChangedEvent.Type type, Task task) {
+        eventPublisher.publishEvent(new TaskChangedEvent(type, task.getId(), taskMapper.map(task)));
+    }
+}
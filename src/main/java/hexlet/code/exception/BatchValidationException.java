@@ -0,0 +1,20 @@
+package hexlet.code.exception;
+
+import hexlet.code.dto.BatchItemErrorDTO;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.List;
+
+@Getter
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class BatchValidationException extends RuntimeException {
+
+    private final List<BatchItemErrorDTO> errors;
+
+    public BatchValidationException(List<BatchItemErrorDTO> errors) {
+        super(errors.size() + " item(s) of the batch are invalid");
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,11 @@
+package hexlet.code.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class MalformedRecordException extends BadRequestException {
+    public MalformedRecordException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,90 @@
+package hexlet.code.filter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фильтр, ограничивающий число одновременно обрабатываемых API-запросов размером пула JDBC-соединений.
+ * На виртуальных потоках число запросов в работе ничем не ограничено, и без фильтра тысячи потоков
+ * стояли бы в очереди внутри пула соединений. Фильтр делает пул явным пределом: запрос ждет разрешения
+ * не дольше заданного времени, иначе получает 503 с Retry-After. Время ожидания пишется в метрику db.permit.wait.
+ * Семафор основан на AbstractQueuedSynchronizer, поэтому ожидание не закрепляет (pin) виртуальный поток.
+ */
+public class DatabaseConcurrencyFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+
+    private final Duration timeout;
+
+    private final Timer acquired;
+
+    private final Timer rejected;
+
+    public DatabaseConcurrencyFilter(int limit, Duration timeout, MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(limit, true);
+        this.timeout = timeout;
+        this.acquired = waitTimer(meterRegistry, "acquired");
+        this.rejected = waitTimer(meterRegistry, "timeout");
+        Gauge.builder("db.permit.available", permits, Semaphore::availablePermits)
+                .description("Free slots of the request limit sized to the JDBC pool")
+                .register(meterRegistry);
+        Gauge.builder("db.permit.waiting", permits, Semaphore::getQueueLength)
+                .description("Requests waiting for a free JDBC pool slot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Метод обработки запроса: ожидание свободного места в пределах пула соединений и передача запроса дальше.
+     * @param request - HTTP-запрос
+     * @param response - HTTP-ответ
+     * @param filterChain - цепочка фильтров
+     * @throws ServletException - при ошибке обработки запроса
+     * @throws IOException - при ошибке ввода-вывода
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        var start = System.nanoTime();
+        boolean permitted;
+        try {
+            permitted = permits.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        var waited = System.nanoTime() - start;
+        if (!permitted) {
+            rejected.record(waited, TimeUnit.NANOSECONDS);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Database is busy");
+            return;
+        }
+        acquired.record(waited, TimeUnit.NANOSECONDS);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static Timer waitTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("db.permit.wait")
+                .description("Time a request waited for a free JDBC pool slot")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
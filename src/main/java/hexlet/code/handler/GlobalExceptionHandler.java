@@ -1,14 +1,20 @@
 package hexlet.code.handler;
 
+import hexlet.code.dto.BatchItemErrorDTO;
+import hexlet.code.exception.BadRequestException;
+import hexlet.code.exception.BatchValidationException;
 import hexlet.code.exception.ResourceNotFoundException;
 import org.postgresql.util.PSQLException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import java.util.List;
+
 /**
  * Глобальный обработчик исключений (всего приложения).
  * Аннотация @ControllerAdvice указывает, что класс отвечает за централизованную обработку исключений.
@@ -27,6 +33,26 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
     }
 
+    /**
+     * Аннотация @ExceptionHandler указывает, какое исключение обрабатывается проаннотированным ей методом.
+     * @param ex - на вход подается возникшее исключение BadRequestException
+     * @return - возвращаем ResponseEntity с кодом BAD_REQUEST и телом ответа
+     */
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<String> handleBadRequestException(BadRequestException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    /**
+     * Аннотация @ExceptionHandler указывает, какое исключение обрабатывается проаннотированным ей методом.
+     * @param ex - на вход подается возникшее исключение BatchValidationException
+     * @return - возвращаем ResponseEntity с кодом UNPROCESSABLE_ENTITY и ошибками по элементам пакета
+     */
+    @ExceptionHandler(BatchValidationException.class)
+    public ResponseEntity<List<BatchItemErrorDTO>> handleBatchValidationException(BatchValidationException ex) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(ex.getErrors());
+    }
+
     /**
      * Аннотация @ExceptionHandler указывает, какое исключение обрабатывается проаннотированным ей методом.
      * @param ex - на вход подается возникшее исключение DataIntegrityViolationException
@@ -39,6 +65,19 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
                         + ex.getMessage());
     }
 
+    /**
+     * Аннотация @ExceptionHandler указывает, какое исключение обрабатывается проаннотированным ей методом.
+     * Запись уже изменена другим запросом после ее чтения (версия строки, @Version).
+     * @param ex - на вход подается возникшее исключение OptimisticLockingFailureException
+     * @return - возвращаем ResponseEntity с кодом CONFLICT и телом ответа
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("Запись изменена другим запросом, повторите изменение: " + "\n"
+                        + ex.getMessage());
+    }
+
     /**
      * Аннотация @ExceptionHandler указывает, какое исключение обрабатывается проаннотированным ей методом.
      * @param ex - на вход подается возникшее исключение PSQLException
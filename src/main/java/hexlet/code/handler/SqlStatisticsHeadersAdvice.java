@@ -0,0 +1,64 @@
+package hexlet.code.handler;
+
+import hexlet.code.util.SqlStatistics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Locale;
+
+/**
+ * Добавляет в ответы API заголовки со статистикой SQL запроса (включается sql.statistics.headers=true,
+ * для окружений разработки и тестирования): число операторов, время в БД и наибольшее число
+ * повторов одного оператора. Заголовки ставятся непосредственно перед записью тела ответа.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "sql.statistics.headers", havingValue = "true")
+public class SqlStatisticsHeadersAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String COUNT_HEADER = "X-SQL-Count";
+
+    public static final String TIME_HEADER = "X-SQL-Time-Ms";
+
+    public static final String MAX_REPEATS_HEADER = "X-SQL-Max-Repeats";
+
+    /**
+     * Метод проверки применимости к ответу.
+     * @param returnType - тип значения обработчика
+     * @param converterType - выбранный конвертер тела
+     * @return - возвращает true (применяется ко всем ответам с телом)
+     */
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    /**
+     * Метод добавления заголовков перед записью тела ответа.
+     * @param body - тело ответа
+     * @param returnType - тип значения обработчика
+     * @param contentType - тип содержимого
+     * @param converterType - выбранный конвертер тела
+     * @param request - запрос
+     * @param response - ответ
+     * @return - возвращает тело ответа без изменений
+     */
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                  Class<? extends HttpMessageConverter<?>> converterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        var statistics = SqlStatistics.current();
+        if (statistics != null) {
+            var headers = response.getHeaders();
+            headers.set(COUNT_HEADER, String.valueOf(statistics.getStatements()));
+            headers.set(TIME_HEADER, String.format(Locale.ROOT, "%.3f", statistics.getMillis()));
+            headers.set(MAX_REPEATS_HEADER, String.valueOf(statistics.getMaxRepeats()));
+        }
+        return body;
+    }
+}
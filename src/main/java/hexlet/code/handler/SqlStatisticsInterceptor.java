@@ -0,0 +1,114 @@
+package hexlet.code.handler;
+
+import hexlet.code.util.SqlStatistics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Перехватчик, открывающий статистику SQL (SqlStatistics) на время обработки запроса контроллером.
+ * Если один и тот же оператор выполнился в запросе не меньше порога раз (типичный N+1), в лог пишется
+ * предупреждение с обработчиком, оператором и стеком вызова. Для одной пары обработчик-оператор
+ * предупреждение пишется не чаще, чем раз в logInterval, чтобы частый запрос не засорял лог.
+ */
+@Slf4j
+public class SqlStatisticsInterceptor implements AsyncHandlerInterceptor {
+
+    private static final int MAX_TRACKED_WARNINGS = 1000;
+
+    private final int repeatThreshold;
+
+    private final Duration logInterval;
+
+    private final Map<String, Long> lastLogged = new ConcurrentHashMap<>();
+
+    public SqlStatisticsInterceptor(int repeatThreshold, Duration logInterval) {
+        this.repeatThreshold = repeatThreshold;
+        this.logInterval = logInterval;
+    }
+
+    /**
+     * Метод открытия статистики перед вызовом обработчика.
+     * @param request - HTTP-запрос
+     * @param response - HTTP-ответ
+     * @param handler - обработчик
+     * @return - возвращает true (запрос обрабатывается дальше)
+     */
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlStatistics.start(repeatThreshold);
+        return true;
+    }
+
+    /**
+     * Метод закрытия статистики при переходе запроса в асинхронный режим (потоковые ответы).
+     * @param request - HTTP-запрос
+     * @param response - HTTP-ответ
+     * @param handler - обработчик
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        SqlStatistics.stop();
+    }
+
+    /**
+     * Метод закрытия статистики и записи предупреждений о N+1 после завершения запроса.
+     * @param request - HTTP-запрос
+     * @param response - HTTP-ответ
+     * @param handler - обработчик
+     * @param ex - исключение обработчика (или null)
+     */
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        var statistics = SqlStatistics.current();
+        SqlStatistics.stop();
+        if (statistics == null || statistics.getRepeated().isEmpty()) {
+            return;
+        }
+        var endpoint = request.getMethod() + " " + pattern(request) + " (" + name(handler) + ")";
+        statistics.getRepeated().forEach((sql, stack) -> {
+            if (shouldLog(endpoint + "|" + sql)) {
+                log.warn("Possible N+1 in {}: statement executed {} times of {} in the request: {}\n\tat {}",
+                        endpoint, statistics.getRepeats(sql), statistics.getStatements(), sql,
+                        stack.stream()
+                                .map(frame -> frame.toStackTraceElement().toString())
+                                .collect(Collectors.joining("\n\tat ")));
+            }
+        });
+    }
+
+    private boolean shouldLog(String key) {
+        var now = System.nanoTime();
+        if (lastLogged.size() > MAX_TRACKED_WARNINGS) {
+            lastLogged.clear();
+        }
+        var previous = lastLogged.get(key);
+        if (previous != null && now - previous < logInterval.toNanos()) {
+            return false;
+        }
+        lastLogged.put(key, now);
+        return true;
+    }
+
+    private static String pattern(HttpServletRequest request) {
+        var pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? request.getRequestURI() : pattern.toString();
+    }
+
+    private static String name(Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + "#" + method.getMethod().getName();
+        }
+        return String.valueOf(handler);
+    }
+}
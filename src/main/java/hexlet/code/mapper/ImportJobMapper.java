@@ -0,0 +1,31 @@
+package hexlet.code.mapper;
+
+import hexlet.code.dto.ImportJobDTO;
+import hexlet.code.model.ImportJob;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.mapstruct.ReportingPolicy;
+
+import java.util.List;
+
+@Mapper(
+        nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE,
+        componentModel = MappingConstants.ComponentModel.SPRING,
+        unmappedTargetPolicy = ReportingPolicy.IGNORE
+)
+public abstract class ImportJobMapper {
+
+    @Mapping(target = "rejections", expression = "java(splitRejections(model.getRejections()))")
+    public abstract ImportJobDTO map(ImportJob model);
+
+    /**
+     * Метод разбора сохраненных сообщений об отклоненных записях (по одному на строку).
+     * @param rejections - сообщения, разделенные переводом строки (или null)
+     * @return - возвращает список сообщений
+     */
+    public List<String> splitRejections(String rejections) {
+        return rejections == null || rejections.isEmpty() ? List.of() : List.of(rejections.split("\n"));
+    }
+}
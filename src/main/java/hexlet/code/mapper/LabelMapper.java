@@ -2,6 +2,7 @@ package hexlet.code.mapper;
 
 import hexlet.code.dto.LabelCreateDTO;
 import hexlet.code.dto.LabelDTO;
+import hexlet.code.dto.LabelSummary;
 import hexlet.code.dto.LabelUpdateDTO;
 import hexlet.code.model.Label;
 import org.mapstruct.Mapper;
@@ -20,5 +21,6 @@ public abstract class LabelMapper {
 
     public abstract Label map(LabelCreateDTO dto);
     public abstract LabelDTO map(Label model);
+    public abstract LabelDTO map(LabelSummary summary);
     public abstract void update(LabelUpdateDTO dto, @MappingTarget Label model);
 }
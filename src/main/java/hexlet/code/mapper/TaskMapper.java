@@ -1,20 +1,20 @@
 package hexlet.code.mapper;
 
+import hexlet.code.component.ReferenceDataRegistry;
 import hexlet.code.dto.TaskCreateDTO;
 import hexlet.code.dto.TaskDTO;
 import hexlet.code.dto.TaskUpdateDTO;
 import hexlet.code.model.Label;
 import hexlet.code.model.Task;
 import hexlet.code.model.TaskStatus;
-import hexlet.code.repository.LabelRepository;
 import hexlet.code.repository.TaskStatusRepository;
+import org.mapstruct.Context;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 import org.mapstruct.ReportingPolicy;
-import org.openapitools.jackson.nullable.JsonNullable;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.ArrayList;
@@ -33,23 +33,35 @@ public abstract class TaskMapper {
     protected TaskStatusRepository taskStatusRepository;
 
     @Autowired
-    private LabelRepository labelRepository;
+    private TaskReferenceResolver referenceResolver;
+
+    @Autowired
+    private ReferenceDataRegistry referenceDataRegistry;
 
     @Autowired
     private JsonNullableMapper jsonNullableMapper;
 
+    /**
+     * Метод преобразования одной создаваемой задачи (ссылки разрешаются пакетно для одной задачи).
+     * @param dto - создаваемая задача в формате TaskCreateDTO.
+     * @return - возвращает задачу (объект типа Task)
+     */
+    public Task map(TaskCreateDTO dto) {
+        return map(dto, referenceResolver.resolveForCreate(List.of(dto)));
+    }
+
     @Mapping(source = "title", target = "name")
     @Mapping(source = "content", target = "description")
     @Mapping(
             target = "taskStatus",
-            expression = "java(defineStatusFromCreateDTO(dto))"
+            expression = "java(defineStatusFromCreateDTO(dto, references))"
     )
     @Mapping(source = "assigneeId", target = "assignee")
     @Mapping(
             target = "labels",
-            expression = "java(defineListLabelFromCreateDTO(dto))"
+            expression = "java(defineListLabelFromCreateDTO(dto, references))"
     )
-    public abstract Task map(TaskCreateDTO dto);
+    public abstract Task map(TaskCreateDTO dto, @Context TaskReferences references);
 
     @Mapping(source = "name", target = "title")
     @Mapping(source = "description", target = "content")
@@ -61,21 +73,30 @@ public abstract class TaskMapper {
     )
     public abstract TaskDTO map(Task model);
 
+    /**
+     * Метод изменения одной задачи (ссылки разрешаются пакетно для одной задачи).
+     * @param dto - изменения задачи в формате TaskUpdateDTO.
+     * @param model - изменяемая задача.
+     */
+    public void update(TaskUpdateDTO dto, Task model) {
+        update(dto, model, referenceResolver.resolveForUpdate(List.of(dto)));
+    }
+
     @Mapping(source = "title", target = "name")
     @Mapping(source = "content", target = "description")
     @Mapping(
             target = "taskStatus",
-            expression = "java(defineStatusFromUpdateDTO(dto, model))"
+            expression = "java(defineStatusFromUpdateDTO(dto, model, references))"
     )
     @Mapping(source = "assigneeId", target = "assignee")
     @Mapping(
             target = "labels",
-            expression = "java(defineListLabelFromUpdateDTO(dto, model))"
+            expression = "java(defineListLabelFromUpdateDTO(dto, model, references))"
     )
-    public abstract void update(TaskUpdateDTO dto, @MappingTarget Task model);
+    public abstract void update(TaskUpdateDTO dto, @MappingTarget Task model, @Context TaskReferences references);
 
     /**
-    * Метод определения списка меток по списку их идентификаторов.
+    * Метод определения списка меток по списку их идентификаторов (одним запросом к БД).
     * @param labelIds - список идентификаторов меток.
     * @return - список меток (объектов типа Label)
     * */
@@ -83,58 +104,36 @@ public abstract class TaskMapper {
         if (labelIds == null) {
             return null;
         }
-        List<Label> result = new ArrayList<>();
-        for (Long idLabel: labelIds) {
-            if (idLabel != null) {
-                Label currentLabel = labelRepository.findById(idLabel).orElse(null);
-                if (currentLabel != null) {
-                    result.add(currentLabel);
-                }
-            }
-        }
-        return result;
+        return referenceResolver.resolve(labelIds, List.of()).labels(labelIds);
     }
 
     /**
      * Метод определения списка меток по списку их идентификаторов из TaskUpdateDTO.
      * @param data - редактируемая задача в формате TaskUpdateDTO.
      * @param model - редактируемая задача в формате Task.
+     * @param references - разрешенные ссылки пакета задач.
      * @return - список меток (объектов типа Label)
      * */
-    public List<Label> defineListLabelFromUpdateDTO(TaskUpdateDTO data, Task model) {
+    public List<Label> defineListLabelFromUpdateDTO(TaskUpdateDTO data, Task model, TaskReferences references) {
         List<Label> oldListLabel = model.getLabels();
         boolean replace = jsonNullableMapper.isPresent(data.getTaskLabelIds());
         if (!replace) {
             return oldListLabel;
         }
-        if (data == null) {
-            return null;
-        }
-        JsonNullable<List<Long>> labelIdsJson = data.getTaskLabelIds();
-        if (labelIdsJson == null) {
-            return null;
-        }
-        List<Long> labelIds = labelIdsJson.get();
-        if (labelIds == null) {
-            return null;
-        }
-        return defineListLabel(labelIds);
+        return references.labels(data.getTaskLabelIds().get());
     }
 
     /**
      * Метод определения списка меток по списку их идентификаторов из TaskCreateDTO.
      * @param data - редактируемая задача в формате TaskCreateDTO.
+     * @param references - разрешенные ссылки пакета задач.
      * @return - список меток (объектов типа Label)
      * */
-    public List<Label> defineListLabelFromCreateDTO(TaskCreateDTO data) {
+    public List<Label> defineListLabelFromCreateDTO(TaskCreateDTO data, TaskReferences references) {
         if (data == null) {
             return null;
         }
-        List<Long> labelIds = data.getTaskLabelIds();
-        if (labelIds == null) {
-            return null;
-        }
-        return defineListLabel(labelIds);
+        return references.labels(data.getTaskLabelIds());
     }
 
     /**
@@ -143,16 +142,7 @@ public abstract class TaskMapper {
      * @return - список меток (объектов типа Label)
      * */
     public List<Label> defineListLabelFromListIds(List<Long> listIds) {
-        List<Label> result = new ArrayList<>();
-        for (Long idLabel: listIds) {
-            if (idLabel != null) {
-                Label currentLabel = labelRepository.findById(idLabel).orElse(null);
-                if (currentLabel != null) {
-                    result.add(currentLabel);
-                }
-            }
-        }
-        return result;
+        return defineListLabel(listIds);
     }
 
     /**
@@ -177,46 +167,33 @@ public abstract class TaskMapper {
      * Метод определения статуса по слагу из TaskUpdateDTO.
      * @param data - редактируемая задача в формате TaskUpdateDTO.
      * @param model - редактируемая задача в формате Task.
+     * @param references - разрешенные ссылки пакета задач.
      * @return - статус (объект типа TaskStatus)
      * */
-    public TaskStatus defineStatusFromUpdateDTO(TaskUpdateDTO data, Task model) {
+    public TaskStatus defineStatusFromUpdateDTO(TaskUpdateDTO data, Task model, TaskReferences references) {
         TaskStatus oldStatus = model.getTaskStatus();
         boolean replace = jsonNullableMapper.isPresent(data.getStatus());
         if (!replace) {
             return oldStatus;
         }
-        if (data == null) {
-            return null;
-        }
-        JsonNullable<String> statusJson = data.getStatus();
-        if (statusJson == null) {
-            return null;
-        }
-        String status = statusJson.get();
-        if (status == null) {
-            return null;
-        }
-        return defineStatus(status);
+        return references.status(data.getStatus().get());
     }
 
     /**
      * Метод определения статуса по слагу из TaskCreateDTO.
      * @param data - редактируемая задача в формате TaskCreateDTO.
+     * @param references - разрешенные ссылки пакета задач.
      * @return - статус (объект типа TaskStatus)
      * */
-    public TaskStatus defineStatusFromCreateDTO(TaskCreateDTO data) {
+    public TaskStatus defineStatusFromCreateDTO(TaskCreateDTO data, TaskReferences references) {
         if (data == null) {
             return null;
         }
-        String status = data.getStatus();
-        if (status == null) {
-            return null;
-        }
-        return defineStatus(status);
+        return references.status(data.getStatus());
     }
 
     /**
-     * Метод определения статуса по строке.
+     * Метод определения статуса по строке (через справочник статусов).
      * @param status - строковое представление.
      * @return - статус (объект типа TaskStatus)
      * */
@@ -227,9 +204,6 @@ public abstract class TaskMapper {
         if (status.isEmpty()) {
             return null;
         }
-        if (taskStatusRepository.findBySlug(status).isPresent()) {
-            return taskStatusRepository.findBySlug(status).get();
-        }
-        return null;
+        return referenceDataRegistry.findStatus(status);
     }
 }
@@ -0,0 +1,110 @@
+package hexlet.code.mapper;
+
+import hexlet.code.component.ReferenceDataRegistry;
+import hexlet.code.dto.TaskCreateDTO;
+import hexlet.code.dto.TaskUpdateDTO;
+import hexlet.code.exception.BadRequestException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Компонент пакетного разрешения ссылок задач на метки и статусы.
+ * Метки и статусы берутся из справочника ReferenceDataRegistry; ключи, которых там нет,
+ * дочитываются из БД одним запросом с IN на весь пакет.
+ * Неизвестные идентификаторы и слаги собираются и сообщаются одной ошибкой.
+ */
+@Component
+public class TaskReferenceResolver {
+
+    @Autowired
+    private ReferenceDataRegistry referenceDataRegistry;
+
+    /**
+     * Метод разрешения ссылок для пакета создаваемых задач.
+     * @param dtos - создаваемые задачи в формате TaskCreateDTO
+     * @return - возвращает найденные метки и статусы
+     */
+    public TaskReferences resolveForCreate(Collection<TaskCreateDTO> dtos) {
+        var labelIds = new ArrayList<Long>();
+        var slugs = new ArrayList<String>();
+        for (var dto : dtos) {
+            if (dto.getTaskLabelIds() != null) {
+                labelIds.addAll(dto.getTaskLabelIds());
+            }
+            slugs.add(dto.getStatus());
+        }
+        return resolve(labelIds, slugs);
+    }
+
+    /**
+     * Метод разрешения ссылок для пакета изменяемых задач (учитываются только переданные поля).
+     * @param dtos - изменяемые задачи в формате TaskUpdateDTO
+     * @return - возвращает найденные метки и статусы
+     */
+    public TaskReferences resolveForUpdate(Collection<TaskUpdateDTO> dtos) {
+        var labelIds = new ArrayList<Long>();
+        var slugs = new ArrayList<String>();
+        for (var dto : dtos) {
+            if (dto.getTaskLabelIds() != null && dto.getTaskLabelIds().isPresent()
+                    && dto.getTaskLabelIds().get() != null) {
+                labelIds.addAll(dto.getTaskLabelIds().get());
+            }
+            if (dto.getStatus() != null && dto.getStatus().isPresent()) {
+                slugs.add(dto.getStatus().get());
+            }
+        }
+        return resolve(labelIds, slugs);
+    }
+
+    /**
+     * Метод разрешения ссылок по идентификаторам меток и слагам статусов.
+     * @param labelIds - идентификаторы меток (null-значения пропускаются)
+     * @param slugs - слаги статусов (null и пустые значения пропускаются)
+     * @return - возвращает найденные метки и статусы
+     */
+    public TaskReferences resolve(Collection<Long> labelIds, Collection<String> slugs) {
+        var references = resolveAvailable(labelIds, slugs);
+        var errors = new ArrayList<String>();
+        var unknownLabels = labelIds.stream()
+                .filter(id -> id != null && !references.hasLabel(id))
+                .collect(Collectors.toCollection(TreeSet::new));
+        if (!unknownLabels.isEmpty()) {
+            errors.add("Labels with ids " + unknownLabels + " not found");
+        }
+        var unknownStatuses = slugs.stream()
+                .filter(slug -> slug != null && !slug.isEmpty() && !references.hasStatus(slug))
+                .collect(Collectors.toCollection(TreeSet::new));
+        if (!unknownStatuses.isEmpty()) {
+            errors.add("TaskStatuses with slugs " + unknownStatuses + " not found");
+        }
+        if (!errors.isEmpty()) {
+            throw new BadRequestException(String.join("; ", errors));
+        }
+        return references;
+    }
+
+    /**
+     * Метод разрешения ссылок без проверки: неизвестные метки и статусы просто отсутствуют в результате.
+     * Используется там, где ошибки нужно сообщать по каждому элементу пакета отдельно.
+     * @param labelIds - идентификаторы меток (null-значения пропускаются)
+     * @param slugs - слаги статусов (null и пустые значения пропускаются)
+     * @return - возвращает найденные метки и статусы
+     */
+    public TaskReferences resolveAvailable(Collection<Long> labelIds, Collection<String> slugs) {
+        Set<Long> wantedLabels = labelIds.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new));
+        Set<String> wantedStatuses = slugs.stream()
+                .filter(slug -> slug != null && !slug.isEmpty())
+                .collect(Collectors.toCollection(TreeSet::new));
+        return new TaskReferences(referenceDataRegistry.findLabels(wantedLabels),
+                referenceDataRegistry.findStatuses(wantedStatuses));
+    }
+}
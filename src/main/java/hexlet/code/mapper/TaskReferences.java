@@ -0,0 +1,69 @@
+package hexlet.code.mapper;
+
+import hexlet.code.model.Label;
+import hexlet.code.model.TaskStatus;
+import lombok.AllArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Разрешенные ссылки (метки и статусы) для пакета маппируемых задач.
+ * Заполняется один раз через TaskReferenceResolver и передается в TaskMapper как @Context,
+ * поэтому все DTO пакета используют одни и те же найденные объекты без повторных запросов к БД.
+ */
+@AllArgsConstructor
+public final class TaskReferences {
+
+    private final Map<Long, Label> labels;
+
+    private final Map<String, TaskStatus> statuses;
+
+    /**
+     * Метод получения меток по списку идентификаторов в порядке списка.
+     * @param labelIds - список идентификаторов меток
+     * @return - возвращает список меток (null, если список идентификаторов null)
+     */
+    public List<Label> labels(List<Long> labelIds) {
+        if (labelIds == null) {
+            return null;
+        }
+        var result = new ArrayList<Label>();
+        labelIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .map(labels::get)
+                .filter(Objects::nonNull)
+                .forEach(result::add);
+        return result;
+    }
+
+    /**
+     * Метод получения статуса по слагу.
+     * @param slug - слаг статуса
+     * @return - возвращает статус (или null)
+     */
+    public TaskStatus status(String slug) {
+        return slug == null ? null : statuses.get(slug);
+    }
+
+    /**
+     * Метод проверки, что метка с данным идентификатором найдена.
+     * @param labelId - идентификатор метки
+     * @return - возвращает true, если метка найдена
+     */
+    public boolean hasLabel(Long labelId) {
+        return labelId != null && labels.containsKey(labelId);
+    }
+
+    /**
+     * Метод проверки, что статус с данным слагом найден.
+     * @param slug - слаг статуса
+     * @return - возвращает true, если статус найден
+     */
+    public boolean hasStatus(String slug) {
+        return slug != null && statuses.containsKey(slug);
+    }
+}
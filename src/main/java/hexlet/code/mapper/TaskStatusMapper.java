@@ -2,6 +2,7 @@ package hexlet.code.mapper;
 
 import hexlet.code.dto.TaskStatusCreateDTO;
 import hexlet.code.dto.TaskStatusDTO;
+import hexlet.code.dto.TaskStatusSummary;
 import hexlet.code.dto.TaskStatusUpdateDTO;
 import hexlet.code.model.TaskStatus;
 import org.mapstruct.Mapper;
@@ -20,5 +21,6 @@ public abstract class TaskStatusMapper {
 
     public abstract TaskStatus map(TaskStatusCreateDTO dto);
     public abstract TaskStatusDTO map(TaskStatus model);
+    public abstract TaskStatusDTO map(TaskStatusSummary summary);
     public abstract void update(TaskStatusUpdateDTO dto, @MappingTarget TaskStatus model);
 }
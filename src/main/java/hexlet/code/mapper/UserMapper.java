@@ -2,6 +2,7 @@ package hexlet.code.mapper;
 
 import hexlet.code.dto.UserCreateDTO;
 import hexlet.code.dto.UserDTO;
+import hexlet.code.dto.UserSummary;
 import hexlet.code.dto.UserUpdateDTO;
 import hexlet.code.model.User;
 import org.mapstruct.BeforeMapping;
@@ -31,6 +32,7 @@ public abstract class UserMapper {
 
     public abstract User map(UserCreateDTO dto);
     public abstract UserDTO map(User model);
+    public abstract UserDTO map(UserSummary summary);
     public abstract void update(UserUpdateDTO dto, @MappingTarget User model);
 
     /**
@@ -0,0 +1,67 @@
+package hexlet.code.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Задание потоковой загрузки задач. Счетчики обновляются в той же транзакции, что и сохраняемая порция задач,
+ * поэтому processed всегда равен числу записей входного файла, результат которых уже зафиксирован,
+ * и повторная загрузка того же файла с этим заданием продолжается ровно с первой незафиксированной записи.
+ */
+@Entity
+@Table(name = "import_jobs")
+@Getter
+@Setter
+public class ImportJob {
+
+    /**
+     * Состояние задания.
+     */
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(length = 16)
+    private String format;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private Status status;
+
+    private long processed;
+
+    private long imported;
+
+    private long rejected;
+
+    @Column(columnDefinition = "TEXT")
+    private String rejections;
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+
+    @NotNull
+    private Instant createdAt;
+
+    @NotNull
+    private Instant updatedAt;
+}
@@ -1,6 +1,7 @@
 package hexlet.code.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import hexlet.code.event.ResourceVersionListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
@@ -10,6 +11,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
@@ -24,7 +26,7 @@ import java.util.List;
 @Table(name = "labels")
 @Getter
 @Setter
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, ResourceVersionListener.class})
 public class Label implements BaseEntity {
 
     @Id
@@ -38,7 +40,14 @@ public class Label implements BaseEntity {
     @CreatedDate
     private LocalDate createdAt;
 
+    @Version
+    private Long version;
+
+    /**
+     * Обратная сторона связи задач с метками. Загружается только при явном обращении,
+     * чтение меток через API к ней не обращается (число задач метки - LabelRepository.countTasksByLabelIds).
+     */
     @JsonIgnore
-    @ManyToMany(mappedBy = "labels", fetch = FetchType.EAGER)
+    @ManyToMany(mappedBy = "labels", fetch = FetchType.LAZY)
     private List<Task> tasks = new ArrayList<>();
 }
@@ -0,0 +1,56 @@
+package hexlet.code.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.Instant;
+
+/**
+ * Токен обновления (refresh token). В базе хранится только SHA-256 от значения токена.
+ * Токены одной цепочки ротации имеют общий family: повторное предъявление уже замененного токена
+ * считается утечкой и отзывает всю цепочку.
+ */
+@Entity
+@Table(name = "refresh_tokens")
+@Getter
+@Setter
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(name = "token_hash", unique = true, length = 64)
+    private String tokenHash;
+
+    @NotNull
+    @Column(length = 36)
+    private String family;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @NotNull
+    private Instant expiresAt;
+
+    private boolean revoked;
+
+    @NotNull
+    private Instant createdAt;
+}
@@ -1,6 +1,7 @@
 package hexlet.code.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import hexlet.code.event.TaskEntityListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
@@ -12,29 +13,58 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 @Entity
 @Getter
 @Setter
 @Table(name = "tasks")
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, TaskEntityListener.class})
 @DynamicUpdate
+@NamedEntityGraph(
+        name = Task.WITH_RELATIONS_GRAPH,
+        attributeNodes = {
+            @NamedAttributeNode("taskStatus"),
+            @NamedAttributeNode("assignee"),
+            @NamedAttributeNode("labels")
+        }
+)
 public class Task implements BaseEntity {
 
+    /**
+     * План загрузки задачи вместе со статусом, исполнителем и метками одним запросом.
+     * Обратная коллекция Label.tasks в план не входит и не загружается.
+     */
+    public static final String WITH_RELATIONS_GRAPH = "Task.withRelations";
+
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * Идентификаторы выдаются блоками из последовательности tasks_seq (pooled), а не через IDENTITY:
+     * так Hibernate знает id до вставки и может объединять INSERT в JDBC-пакеты.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = Task.ID_ALLOCATION_SIZE)
     private Long id;
 
     private Long index;
@@ -51,6 +81,14 @@ public class Task implements BaseEntity {
     @JoinColumn(name = "status", referencedColumnName = "slug", nullable = false)
     private TaskStatus taskStatus;
 
+    /**
+     * Слаг статуса из того же столбца status, только для чтения.
+     * Позволяет фильтровать и проецировать задачи по статусу без соединения с task_statuses.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "status", insertable = false, updatable = false)
+    private String statusSlug;
+
     @ManyToOne(targetEntity = User.class, optional = true, fetch = FetchType.EAGER)
     @JoinColumn(name = "assignee_id", referencedColumnName = "id", nullable = true)
     private User assignee;
@@ -58,6 +96,20 @@ public class Task implements BaseEntity {
     @CreatedDate
     private LocalDate createdAt;
 
+    /**
+     * Время последней записи задачи (для GET /api/tasks/changes).
+     * Изменения в обход JPA выставляют его сами (TaskPatchService, TaskBulkService).
+     */
+    @LastModifiedDate
+    private Instant updatedAt;
+
+    /**
+     * Версия строки задачи (для ETag). Изменения в обход JPA увеличивают ее сами
+     * (TaskRepositoryCustom.updateFields).
+     */
+    @Version
+    private Long version;
+
     @JsonIgnore
     @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(
@@ -67,13 +119,28 @@ public class Task implements BaseEntity {
     )
     private List<Label> labels = new ArrayList<>();
 
+    /**
+     * Метод замены меток задачи.
+     * Изменение одной коллекции меток не меняет строку tasks, и JPA не вызвал бы для нее @PreUpdate/@PostUpdate.
+     * Поэтому при другом наборе меток здесь же сдвигается updatedAt: задача записывается как измененная.
+     * @param labels - новые метки задачи.
+     * */
+    public void setLabels(List<Label> labels) {
+        if (!labelIds(this.labels).equals(labelIds(labels))) {
+            this.updatedAt = Instant.now();
+        }
+        this.labels = labels;
+    }
+
     /**
      * Метод добавления метки в задачу.
+     * Меняется только владеющая сторона связи: обратная коллекция Label.tasks ленивая,
+     * и ее синхронизация загрузила бы все задачи метки.
      * @param label - добавляемая метка.
      * */
     public void addLabel(Label label) {
         this.labels.add(label);
-        label.getTasks().add(this);
+        this.updatedAt = Instant.now();
     }
 
     /**
@@ -81,7 +148,12 @@ public class Task implements BaseEntity {
      * @param label - удаляемая метка.
      * */
     public void removeLabel(Label label) {
-        this.labels.remove(label);
-        label.getTasks().remove(this);
+        if (this.labels.remove(label)) {
+            this.updatedAt = Instant.now();
+        }
+    }
+
+    private static List<Long> labelIds(List<Label> labels) {
+        return labels == null ? List.of() : labels.stream().map(Label::getId).filter(Objects::nonNull).toList();
     }
 }
@@ -0,0 +1,48 @@
+package hexlet.code.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Задача, отобранная фильтром массовой операции (TaskBulkService).
+ * Идентификаторы отбираются один раз в начале операции, а остальные ее команды находят задачи по ним,
+ * так что изменение статуса или меток, по которым отбирались задачи, не меняет их набор.
+ * Строки удаляются в той же транзакции, что их записала.
+ */
+@Entity
+@Table(name = "task_bulk_selections")
+@IdClass(TaskBulkSelection.Key.class)
+@Getter
+@Setter
+public class TaskBulkSelection {
+
+    @Id
+    @Column(name = "operation_id")
+    private UUID operationId;
+
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    /**
+     * Составной ключ строки: операция и задача.
+     */
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+
+        private UUID operationId;
+
+        private Long taskId;
+    }
+}
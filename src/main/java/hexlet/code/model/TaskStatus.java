@@ -1,5 +1,6 @@
 package hexlet.code.model;
 
+import hexlet.code.event.ResourceVersionListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
@@ -9,6 +10,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Size;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -25,7 +27,7 @@ import java.util.List;
 @Table(name = "task_statuses")
 @Getter
 @Setter
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, ResourceVersionListener.class})
 @ToString(includeFieldNames = true, onlyExplicitlyIncluded = true)
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class TaskStatus implements BaseEntity {
@@ -51,6 +53,9 @@ public class TaskStatus implements BaseEntity {
     @CreatedDate
     private LocalDate createdAt;
 
+    @Version
+    private Long version;
+
     @OneToMany(targetEntity = Task.class, mappedBy = "taskStatus", fetch = FetchType.LAZY)
     private List<Task> tasks = new ArrayList<>();
 
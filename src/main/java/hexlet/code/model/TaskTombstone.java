@@ -0,0 +1,29 @@
+package hexlet.code.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Отметка об удаленной задаче для синхронизации изменений (GET /api/tasks/changes).
+ * Записывается в одной транзакции с удалением задачи и хранится tasks.changes.tombstone-retention:
+ * клиент, последний раз синхронизировавшийся раньше, должен перечитать задачи целиком.
+ */
+@Entity
+@Table(name = "task_tombstones")
+@Getter
+@Setter
+public class TaskTombstone {
+
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+}
@@ -0,0 +1,18 @@
+package hexlet.code.repository;
+
+import hexlet.code.model.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+
+    @Modifying
+    @Query("update ImportJob j set j.status = :running, j.error = null, j.updatedAt = :now "
+            + "where j.id = :id and (j.status = :failed or (j.status = :running and j.updatedAt < :staleBefore))")
+    int claim(Long id, Instant now, Instant staleBefore, ImportJob.Status running, ImportJob.Status failed);
+}
@@ -1,12 +1,19 @@
 package hexlet.code.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import hexlet.code.model.Label;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface LabelRepository extends JpaRepository<Label, Long> {
     Optional<Label> findByName(String name);
+
+    @Query(value = "SELECT label_id, COUNT(*) FROM task_label WHERE label_id IN (:labelIds) GROUP BY label_id",
+            nativeQuery = true)
+    List<Object[]> countTasksByLabelIds(Collection<Long> labelIds);
 }
@@ -0,0 +1,148 @@
+package hexlet.code.repository;
+
+import hexlet.code.exception.BadRequestException;
+import hexlet.code.util.PageCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+/**
+ * Выборка записей справочных сущностей (пользователи, метки, статусы) сразу в проекции-записи (record).
+ * В SELECT попадают только столбцы, совпадающие с компонентами проекции, поэтому сущности не создаются,
+ * а лишние столбцы (например, хэш пароля) и связи не читаются.
+ * Поддерживаются постраничная выборка по смещению и keyset-пагинация по курсору PageCursor.
+ */
+@Repository
+public class ProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Метод чтения страницы записей в проекцию.
+     * @param entityType - класс сущности
+     * @param projection - класс проекции: имена компонентов совпадают с именами атрибутов сущности
+     * @param after - курсор, после которого выбираются записи (или null)
+     * @param sort - сортировка (последним ключом должен идти id, если сортировка не только по id)
+     * @param offset - смещение первой строки
+     * @param limit - максимальное число строк
+     * @param <E> - тип сущности
+     * @param <R> - тип проекции
+     * @return - возвращает список проекций в порядке сортировки
+     */
+    @Transactional(readOnly = true)
+    public <E, R extends Record> List<R> findProjected(Class<E> entityType, Class<R> projection, PageCursor after,
+                                                       Sort sort, long offset, int limit) {
+        return createQuery(entityType, projection,
+                (criteriaBuilder, root) -> after == null ? null : after(criteriaBuilder, root, after), sort)
+                .setFirstResult((int) offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Метод чтения одной записи в проекцию.
+     * @param entityType - класс сущности
+     * @param projection - класс проекции: имена компонентов совпадают с именами атрибутов сущности
+     * @param id - идентификатор записи
+     * @param <E> - тип сущности
+     * @param <R> - тип проекции
+     * @return - возвращает проекцию, если запись найдена
+     */
+    @Transactional(readOnly = true)
+    public <E, R extends Record> Optional<R> findProjectedById(Class<E> entityType, Class<R> projection, Long id) {
+        return createQuery(entityType, projection,
+                (criteriaBuilder, root) -> criteriaBuilder.equal(root.get("id"), id), Sort.unsorted())
+                .getResultStream()
+                .findFirst();
+    }
+
+    /**
+     * Метод подсчета всех записей сущности (отдельный запрос count для X-Total-Count).
+     * @param entityType - класс сущности
+     * @param <E> - тип сущности
+     * @return - возвращает число записей
+     */
+    @Transactional(readOnly = true)
+    public <E> long count(Class<E> entityType) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createQuery(Long.class);
+        query.select(criteriaBuilder.count(query.from(entityType)));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private <E, R extends Record> TypedQuery<R> createQuery(Class<E> entityType, Class<R> projection,
+                                                            BiFunction<CriteriaBuilder, Root<E>, Predicate> where,
+                                                            Sort sort) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createQuery(projection);
+        var root = query.from(entityType);
+        var selections = Arrays.stream(projection.getRecordComponents())
+                .map(component -> root.get(component.getName()))
+                .toArray(Selection<?>[]::new);
+        query.select(criteriaBuilder.construct(projection, selections));
+        var predicate = where.apply(criteriaBuilder, root);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+        return entityManager.createQuery(query);
+    }
+
+    private <E> Predicate after(CriteriaBuilder criteriaBuilder, Root<E> root, PageCursor cursor) {
+        var ascending = cursor.getDirection() == Sort.Direction.ASC;
+        if (cursor.getId() == null) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        Predicate byId = beyond(criteriaBuilder, root.get("id"), cursor.getId(), ascending);
+        if (cursor.getSortKey().equals("id")) {
+            return byId;
+        }
+        Expression<Comparable<Object>> key = root.get(cursor.getSortKey());
+        var value = parse(key.getJavaType(), cursor.getValue());
+        return criteriaBuilder.or(
+                beyond(criteriaBuilder, key, value, ascending),
+                criteriaBuilder.and(criteriaBuilder.equal(key, value), byId));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate beyond(CriteriaBuilder criteriaBuilder, Expression key, Comparable value,
+                                    boolean ascending) {
+        return ascending ? criteriaBuilder.greaterThan(key, value) : criteriaBuilder.lessThan(key, value);
+    }
+
+    private static Comparable<?> parse(Class<?> type, String value) {
+        if (value == null || value.isEmpty()) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        try {
+            if (type == Long.class) {
+                return Long.valueOf(value);
+            }
+            if (type == LocalDate.class) {
+                return LocalDate.parse(value);
+            }
+            if (type == String.class) {
+                return value;
+            }
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor value " + value);
+        }
+        throw new BadRequestException("Unsupported cursor key type " + type.getSimpleName());
+    }
+}
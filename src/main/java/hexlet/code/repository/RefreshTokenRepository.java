@@ -0,0 +1,39 @@
+package hexlet.code.repository;
+
+import hexlet.code.model.RefreshToken;
+import hexlet.code.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    @EntityGraph(attributePaths = "user")
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    @Modifying
+    @Query("update RefreshToken r set r.revoked = true where r.id = :id and r.revoked = false")
+    int revokeIfActive(Long id);
+
+    @Modifying
+    @Query("update RefreshToken r set r.revoked = true where r.family = :family and r.revoked = false")
+    int revokeFamily(String family);
+
+    @Modifying
+    @Query("update RefreshToken r set r.revoked = true where r.user = :user and r.revoked = false")
+    int revokeAllOf(User user);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RefreshToken r where r.expiresAt < :now or r.revoked = true and not exists"
+            + " (select a.id from RefreshToken a where a.family = r.family and a.revoked = false"
+            + " and a.expiresAt >= :now)")
+    int deleteUnusable(Instant now);
+}
@@ -0,0 +1,17 @@
+package hexlet.code.repository;
+
+import hexlet.code.model.TaskBulkSelection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface TaskBulkSelectionRepository extends JpaRepository<TaskBulkSelection, TaskBulkSelection.Key> {
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from TaskBulkSelection s where s.operationId = :operation")
+    int clear(UUID operation);
+}
@@ -1,13 +1,67 @@
 package hexlet.code.repository;
 
 import hexlet.code.model.Task;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>,
+        TaskRepositoryCustom {
     Optional<Task> findByIndex(Long index);
+
+    @EntityGraph(value = Task.WITH_RELATIONS_GRAPH, type = EntityGraph.EntityGraphType.FETCH)
+    Optional<Task> findWithRelationsById(Long id);
+
+    @Query(value = "SELECT label_id FROM task_label WHERE task_id = :taskId", nativeQuery = true)
+    List<Long> findLabelIdsByTaskId(Long taskId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO task_label (task_id, label_id) SELECT t.id, :labelId FROM tasks t"
+            + " WHERE t.id IN (:ids) AND NOT EXISTS"
+            + " (SELECT 1 FROM task_label tl WHERE tl.task_id = t.id AND tl.label_id = :labelId)",
+            nativeQuery = true)
+    int addLabel(Collection<Long> ids, Long labelId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM task_label WHERE task_id IN (:ids) AND label_id IN (:labelIds)", nativeQuery = true)
+    int removeLabels(Collection<Long> ids, Collection<Long> labelIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO task_label (task_id, label_id) SELECT s.task_id, :labelId FROM task_bulk_selections s"
+            + " WHERE s.operation_id = :operation AND NOT EXISTS"
+            + " (SELECT 1 FROM task_label tl WHERE tl.task_id = s.task_id AND tl.label_id = :labelId)",
+            nativeQuery = true)
+    int addLabelToSelected(UUID operation, Long labelId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM task_label WHERE label_id IN (:labelIds) AND task_id IN"
+            + " (SELECT s.task_id FROM task_bulk_selections s WHERE s.operation_id = :operation)", nativeQuery = true)
+    int removeLabelsFromSelected(UUID operation, Collection<Long> labelIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM task_label WHERE task_id IN (:ids)", nativeQuery = true)
+    int removeAllLabels(Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM task_label WHERE task_id IN"
+            + " (SELECT s.task_id FROM task_bulk_selections s WHERE s.operation_id = :operation)", nativeQuery = true)
+    int removeAllLabelsFromSelected(UUID operation);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Task t where t.id in :ids")
+    int deleteAllByIds(Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Task t where t.id in"
+            + " (select s.taskId from TaskBulkSelection s where s.operationId = :operation)")
+    int deleteSelected(UUID operation);
 }
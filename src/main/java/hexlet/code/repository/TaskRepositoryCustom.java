@@ -0,0 +1,52 @@
+package hexlet.code.repository;
+
+import hexlet.code.dto.TaskDTO;
+import hexlet.code.model.Task;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Дополнительные методы выборки задач по спецификации.
+ * Для чтения через API есть проекции сразу в TaskDTO: они не создают сущностей и не наполняют контекст
+ * персистентности, а идентификаторы меток агрегируются в самом SQL-запросе.
+ * Число SQL-запросов не зависит от размера страницы, а пагинация выполняется в БД, а не в памяти.
+ * Проекции заменили прежнюю выборку сущностей по плану загрузки (findAllWithGraph: страница идентификаторов
+ * и загрузка задач страницы со связями из Task.WITH_RELATIONS_GRAPH): findTaskDTOs всегда выполняет
+ * ровно два запроса - выборку столбцов страницы и агрегацию меток задач страницы. Это проверяет
+ * TaskControllerTest.testIndexOfTasksStatementCountDoesNotDependOnPageSize. План загрузки остается
+ * для чтения одной задачи сущностью (TaskRepository.findWithRelationsById).
+ * Частичное и массовое изменение задач (updateFields, updateSelected) тоже идет без сущностей: одной командой
+ * UPDATE по переданным полям, для массового изменения - по задачам, отобранным спецификацией (select).
+ */
+public interface TaskRepositoryCustom {
+
+    List<Long> findTaskIds(Specification<Task> specification, Sort sort, long offset, int limit);
+
+    List<TaskDTO> findTaskDTOs(Specification<Task> specification, Sort sort, long offset, int limit);
+
+    long streamTaskDTOs(Specification<Task> specification, Sort sort, int chunkSize,
+                        Consumer<List<TaskDTO>> consumer);
+
+    Optional<TaskDTO> findTaskDTOById(Long id);
+
+    int updateFields(Long id, Map<String, Object> values);
+
+    int select(UUID operation, Specification<Task> specification);
+
+    int updateSelected(UUID operation, Map<String, Object> values);
+
+    Map<String, Long> countByStatus(Specification<Task> specification);
+
+    Map<Long, Long> countByAssignee(Specification<Task> specification);
+
+    Map<Long, Long> countByLabel(Specification<Task> specification);
+
+    Map<Long, Instant> findUpdatedAfter(Instant since, Long afterId, int limit);
+}
@@ -0,0 +1,416 @@
+package hexlet.code.repository;
+
+import hexlet.code.component.DatabasePlatform;
+import hexlet.code.dto.TaskDTO;
+import hexlet.code.model.Task;
+import hexlet.code.model.TaskBulkSelection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.Array;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    private static final String LABEL_IDS_SEPARATOR = ",";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private DatabasePlatform databasePlatform;
+
+    /**
+     * Метод чтения страницы задач сразу в TaskDTO (без создания сущностей).
+     * Выполняет два запроса: выборку столбцов задач по спецификации и агрегацию идентификаторов меток
+     * для задач страницы (array_agg в PostgreSQL, listagg в остальных СУБД).
+     * @param specification - условия отбора задач
+     * @param sort - сортировка
+     * @param offset - смещение первой строки
+     * @param limit - максимальное число строк
+     * @return - возвращает список задач в формате TaskDTO в порядке сортировки
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskDTO> findTaskDTOs(Specification<Task> specification, Sort sort, long offset, int limit) {
+        var dtos = createTaskDTOQuery(specification, sort, false)
+                .setFirstResult((int) offset)
+                .setMaxResults(limit)
+                .getResultList()
+                .stream()
+                .map(this::toTaskDTO)
+                .toList();
+        fillLabelIds(dtos);
+        return dtos;
+    }
+
+    /**
+     * Метод потокового чтения всех задач по спецификации порциями TaskDTO.
+     * Строки читаются однонаправленным курсором с размером выборки chunkSize (сущности не создаются),
+     * метки агрегируются одним запросом на порцию, а после передачи порции потребителю
+     * контекст персистентности очищается - объем памяти не зависит от числа задач.
+     * @param specification - условия отбора задач
+     * @param sort - сортировка
+     * @param chunkSize - размер порции (и размер выборки JDBC)
+     * @param consumer - потребитель порций задач
+     * @return - возвращает общее число прочитанных задач
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long streamTaskDTOs(Specification<Task> specification, Sort sort, int chunkSize,
+                               Consumer<List<TaskDTO>> consumer) {
+        var count = 0L;
+        var chunk = new ArrayList<TaskDTO>(chunkSize);
+        try (var rows = createTaskDTOQuery(specification, sort, false)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, chunkSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            var iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(toTaskDTO(iterator.next()));
+                if (chunk.size() == chunkSize || !iterator.hasNext()) {
+                    fillLabelIds(chunk);
+                    consumer.accept(chunk);
+                    count += chunk.size();
+                    chunk = new ArrayList<>(chunkSize);
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Метод чтения одной задачи сразу в TaskDTO (без создания сущности) одним запросом.
+     * Метки присоединяются левым соединением: по строке на метку, а задача без меток дает одну строку.
+     * @param id - идентификатор задачи
+     * @return - возвращает задачу в формате TaskDTO, если она найдена
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<TaskDTO> findTaskDTOById(Long id) {
+        Specification<Task> byId = (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("id"), id);
+        var rows = createTaskDTOQuery(byId, Sort.unsorted(), true).getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        var dto = toTaskDTO(rows.get(0));
+        dto.setTaskLabelIds(rows.stream()
+                .map(row -> row.get("labelId", Long.class))
+                .filter(Objects::nonNull)
+                .sorted()
+                .collect(Collectors.toCollection(ArrayList::new)));
+        return Optional.of(dto);
+    }
+
+    /**
+     * Метод изменения полей одной задачи одной командой UPDATE (без загрузки сущности).
+     * Версия задачи (для ETag) увеличивается той же командой.
+     * Как и @Modifying-запросы TaskRepository, перед командой сбрасывает изменения контекста персистентности
+     * в БД, а после нее очищает контекст.
+     * @param id - идентификатор задачи
+     * @param values - новые значения по именам атрибутов Task (значение null очищает поле)
+     * @return - возвращает число измененных строк (0, если задачи нет)
+     */
+    @Override
+    @Transactional
+    public int updateFields(Long id, Map<String, Object> values) {
+        return update(values, (root, update, criteriaBuilder) -> criteriaBuilder.equal(root.get("id"), id));
+    }
+
+    /**
+     * Метод отбора задач, подходящих под спецификацию, для массовой операции: их идентификаторы записываются
+     * в рабочую таблицу task_bulk_selections одной командой INSERT ... SELECT (в память не читаются).
+     * Спецификация строит условие по настоящему запросу CriteriaQuery, как и при чтении задач.
+     * @param operation - идентификатор операции (по нему остальные команды операции находят задачи)
+     * @param specification - условия отбора задач
+     * @return - возвращает число отобранных задач
+     */
+    @Override
+    @Transactional
+    public int select(UUID operation, Specification<Task> specification) {
+        entityManager.flush();
+        var session = entityManager.unwrap(Session.class);
+        var criteriaBuilder = session.getCriteriaBuilder();
+        var query = criteriaBuilder.createTupleQuery();
+        var root = query.from(Task.class);
+        query.multiselect(criteriaBuilder.parameter(UUID.class, "operation"), root.get("id"));
+        var predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        var insert = criteriaBuilder.createCriteriaInsertSelect(TaskBulkSelection.class);
+        var target = insert.getTarget();
+        insert.setInsertionTargetPaths(target.get("operationId"), target.get("taskId"));
+        insert.select(query);
+        return session.createMutationQuery(insert)
+                .setParameter("operation", operation)
+                .executeUpdate();
+    }
+
+    /**
+     * Метод изменения полей задач, отобранных для массовой операции (select), одной командой
+     * UPDATE ... WHERE id IN (отобранные идентификаторы).
+     * @param operation - идентификатор операции
+     * @param values - новые значения по именам атрибутов Task (значение null очищает поле)
+     * @return - возвращает число измененных строк
+     */
+    @Override
+    @Transactional
+    public int updateSelected(UUID operation, Map<String, Object> values) {
+        return update(values, (root, update, criteriaBuilder) -> {
+            var subquery = update.subquery(Long.class);
+            var selection = subquery.from(TaskBulkSelection.class);
+            subquery.select(selection.get("taskId"))
+                    .where(criteriaBuilder.equal(selection.get("operationId"), operation));
+            return root.get("id").in(subquery);
+        });
+    }
+
+    private int update(Map<String, Object> values, UpdateCondition condition) {
+        entityManager.flush();
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var update = criteriaBuilder.createCriteriaUpdate(Task.class);
+        var root = update.from(Task.class);
+        values.forEach((attribute, value) -> setValue(criteriaBuilder, update, root.get(attribute), value));
+        Path<Long> version = root.get("version");
+        update.set(version, criteriaBuilder.sum(version, 1L));
+        update.where(condition.toPredicate(root, update, criteriaBuilder));
+        var updated = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+
+    private static <Y> void setValue(CriteriaBuilder criteriaBuilder, CriteriaUpdate<Task> update, Path<Y> path,
+                                     Object value) {
+        if (value == null) {
+            update.set(path, criteriaBuilder.nullLiteral(path.getJavaType()));
+        } else {
+            update.set(path, path.getJavaType().cast(value));
+        }
+    }
+
+    /**
+     * Метод подсчета задач по slug статуса одним запросом GROUP BY.
+     * @param specification - условия отбора задач
+     * @return - возвращает число задач для каждого статуса, в котором они есть
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Long> countByStatus(Specification<Task> specification) {
+        return countGroupedBy(specification, root -> root.get("statusSlug"));
+    }
+
+    /**
+     * Метод подсчета задач по исполнителю одним запросом GROUP BY (по внешнему ключу, без соединения с users).
+     * @param specification - условия отбора задач
+     * @return - возвращает число задач для каждого исполнителя (ключ null - задачи без исполнителя)
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Long> countByAssignee(Specification<Task> specification) {
+        return countGroupedBy(specification, root -> root.get("assignee").get("id"));
+    }
+
+    /**
+     * Метод подсчета задач по меткам одним запросом GROUP BY (задача с несколькими метками учитывается в каждой).
+     * @param specification - условия отбора задач
+     * @return - возвращает число задач для каждой метки, у которой они есть
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Long> countByLabel(Specification<Task> specification) {
+        return countGroupedBy(specification, root -> root.join("labels", JoinType.INNER).get("id"));
+    }
+
+    /**
+     * Метод выборки задач, измененных после позиции (since, afterId), в порядке (updatedAt, id).
+     * @param since - время изменения последней уже полученной задачи
+     * @param afterId - идентификатор последней уже полученной задачи с этим временем
+     * @param limit - максимальное число задач
+     * @return - возвращает время последнего изменения для каждой задачи в порядке изменений
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Instant> findUpdatedAfter(Instant since, Long afterId, int limit) {
+        var rows = entityManager.createQuery("select t.id, t.updatedAt from Task t"
+                        + " where t.updatedAt > :since or (t.updatedAt = :since and t.id > :afterId)"
+                        + " order by t.updatedAt, t.id", Object[].class)
+                .setParameter("since", since)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
+                .getResultList();
+        var result = new LinkedHashMap<Long, Instant>();
+        for (var row : rows) {
+            result.put((Long) row[0], (Instant) row[1]);
+        }
+        return result;
+    }
+
+    private <K> Map<K, Long> countGroupedBy(Specification<Task> specification,
+                                            Function<Root<Task>, Expression<K>> keyOf) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createTupleQuery();
+        var root = query.from(Task.class);
+        var key = keyOf.apply(root);
+        query.multiselect(key.alias("key"), criteriaBuilder.count(root).alias("count"));
+        var predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.groupBy(key);
+        query.orderBy(criteriaBuilder.asc(key));
+        var result = new LinkedHashMap<K, Long>();
+        for (var row : entityManager.createQuery(query).getResultList()) {
+            @SuppressWarnings("unchecked")
+            var value = (K) row.get("key");
+            result.put(value, row.get("count", Long.class));
+        }
+        return result;
+    }
+
+    private TypedQuery<Tuple> createTaskDTOQuery(Specification<Task> specification, Sort sort,
+                                                 boolean withLabelIds) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createTupleQuery();
+        var root = query.from(Task.class);
+        var selections = new ArrayList<Selection<?>>(List.of(
+                root.get("id").alias("id"),
+                root.get("index").alias("index"),
+                root.get("name").alias("title"),
+                root.get("description").alias("content"),
+                root.get("createdAt").alias("createdAt"),
+                root.get("statusSlug").alias("status"),
+                root.get("assignee").get("id").alias("assigneeId"),
+                root.get("version").alias("version")));
+        if (withLabelIds) {
+            selections.add(root.join("labels", JoinType.LEFT).get("id").alias("labelId"));
+        }
+        query.multiselect(selections);
+        var predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+        return entityManager.createQuery(query);
+    }
+
+    private void fillLabelIds(List<TaskDTO> dtos) {
+        var labelIds = findLabelIds(dtos.stream().map(TaskDTO::getId).toList());
+        dtos.forEach(dto -> dto.setTaskLabelIds(labelIds.getOrDefault(dto.getId(), new ArrayList<>())));
+    }
+
+    private TaskDTO toTaskDTO(Tuple row) {
+        var dto = new TaskDTO();
+        dto.setId(row.get("id", Long.class));
+        dto.setIndex(row.get("index", Long.class));
+        dto.setTitle(row.get("title", String.class));
+        dto.setContent(row.get("content", String.class));
+        dto.setCreatedAt(row.get("createdAt", LocalDate.class));
+        dto.setStatus(row.get("status", String.class));
+        dto.setAssigneeId(row.get("assigneeId", Long.class));
+        dto.setVersion(row.get("version", Long.class));
+        return dto;
+    }
+
+    private Map<Long, List<Long>> findLabelIds(Collection<Long> taskIds) {
+        var result = new HashMap<Long, List<Long>>();
+        if (taskIds.isEmpty()) {
+            return result;
+        }
+        var aggregate = databasePlatform.isPostgreSQL()
+                ? "array_agg(l.id) within group (order by l.id)"
+                : "listagg(cast(l.id as String), '" + LABEL_IDS_SEPARATOR + "')";
+        var rows = entityManager.createQuery(
+                        "select t.id, " + aggregate + " from Task t join t.labels l where t.id in :ids group by t.id",
+                        Object[].class)
+                .setParameter("ids", taskIds)
+                .getResultList();
+        for (var row : rows) {
+            result.put((Long) row[0], parseLabelIds(row[1]));
+        }
+        return result;
+    }
+
+    private static List<Long> parseLabelIds(Object aggregated) {
+        var ids = new ArrayList<Long>();
+        if (aggregated instanceof String joined) {
+            Arrays.stream(joined.split(LABEL_IDS_SEPARATOR))
+                    .map(Long::valueOf)
+                    .forEach(ids::add);
+        } else if (aggregated != null && aggregated.getClass().isArray()) {
+            for (int i = 0; i < Array.getLength(aggregated); i++) {
+                ids.add(((Number) Array.get(aggregated, i)).longValue());
+            }
+        }
+        ids.sort(Comparator.naturalOrder());
+        return ids;
+    }
+
+    /**
+     * Метод выборки идентификаторов задач по спецификации.
+     * @param specification - спецификация отбора задач
+     * @param sort - сортировка
+     * @param offset - смещение первой строки
+     * @param limit - максимальное число строк
+     * @return - возвращает список идентификаторов задач.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findTaskIds(Specification<Task> specification, Sort sort, long offset, int limit) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createQuery(Long.class);
+        var root = query.from(Task.class);
+        query.select(root.get("id"));
+        var predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+        return entityManager.createQuery(query)
+                .setFirstResult((int) offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Условие отбора строк команды UPDATE.
+     */
+    @FunctionalInterface
+    private interface UpdateCondition {
+
+        Predicate toPredicate(Root<Task> root, CriteriaUpdate<Task> update, CriteriaBuilder criteriaBuilder);
+    }
+}
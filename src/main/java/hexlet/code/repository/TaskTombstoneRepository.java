@@ -0,0 +1,37 @@
+package hexlet.code.repository;
+
+import hexlet.code.model.TaskTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO task_tombstones (task_id, deleted_at) SELECT t.id, :deletedAt FROM tasks t"
+            + " WHERE t.id IN (:ids)", nativeQuery = true)
+    int recordDeleted(Collection<Long> ids, Instant deletedAt);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO task_tombstones (task_id, deleted_at) SELECT s.task_id, :deletedAt"
+            + " FROM task_bulk_selections s WHERE s.operation_id = :operation", nativeQuery = true)
+    int recordDeletedSelected(UUID operation, Instant deletedAt);
+
+    @Query("select t from TaskTombstone t where t.deletedAt > :since or (t.deletedAt = :since and t.taskId > :afterId)"
+            + " order by t.deletedAt, t.taskId")
+    List<TaskTombstone> findDeletedAfter(Instant since, Long afterId, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("delete from TaskTombstone t where t.deletedAt < :before")
+    int deleteOlderThan(Instant before);
+}
@@ -2,11 +2,21 @@ package hexlet.code.repository;
 
 import hexlet.code.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    @Query("select u.id from User u where u.id in :ids")
+    Set<Long> findExistingIds(Collection<Long> ids);
+
+    @Query("select u.email, u.id from User u where u.email in :emails")
+    List<Object[]> findIdsByEmails(Collection<String> emails);
 }
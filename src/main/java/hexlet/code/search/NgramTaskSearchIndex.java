@@ -0,0 +1,236 @@
+package hexlet.code.search;
+
+import hexlet.code.event.TaskChangedEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Встроенный n-граммный (триграммный) инвертированный индекс задач для H2 и разработки.
+ * Для каждой триграммы названия и описания хранится множество задач, в которых она встречается.
+ * Кандидаты на совпадение - пересечение множеств триграмм запроса (от самого короткого),
+ * после чего совпадение подстроки проверяется по тексту и вычисляется релевантность.
+ * Индекс строится при старте и обновляется по TaskChangedEvent после фиксации транзакции.
+ * Массовое удаление не сообщает удаленных задач: оно только отмечает все проиндексированные задачи как
+ * непроверенные, а найденные непроверенные задачи проверяются по БД одним запросом при поиске,
+ * и удаленные из них убираются из индекса. Индекс при этом не перестраивается и не очищается.
+ */
+public class NgramTaskSearchIndex implements TaskSearch {
+
+    private static final int GRAM = 3;
+
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+
+    private final AtomicLong bulkDeletes = new AtomicLong();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Метод построения индекса по всем задачам при старте приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        postings.clear();
+        documents.clear();
+        entityManager
+                .createQuery("select t.id as id, t.name as title, t.description as content from Task t", Tuple.class)
+                .getResultList()
+                .forEach(row -> index(row.get("id", Long.class),
+                        row.get("title", String.class), row.get("content", String.class)));
+    }
+
+    /**
+     * Метод обновления индекса после фиксации изменения задачи.
+     * @param event - событие изменения задачи
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.isBulk()) {
+            // массовое изменение не трогает названия и описания, а удаленные задачи здесь не известны
+            if (event.getType() == TaskChangedEvent.Type.DELETED) {
+                bulkDeletes.incrementAndGet();
+            }
+        } else if (event.getType() == TaskChangedEvent.Type.DELETED || event.getTask() == null) {
+            remove(event.getTaskId());
+        } else {
+            index(event.getTaskId(), event.getTask().getTitle(), event.getTask().getContent());
+        }
+    }
+
+    /**
+     * Метод добавления или замены задачи в индексе.
+     * @param id - идентификатор задачи
+     * @param title - название задачи
+     * @param content - описание задачи
+     */
+    public void index(Long id, String title, String content) {
+        remove(id);
+        var document = new Document(normalize(title), normalize(content), bulkDeletes.get());
+        documents.put(id, document);
+        document.grams().forEach(gram -> postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(id));
+    }
+
+    /**
+     * Метод удаления задачи из индекса.
+     * @param id - идентификатор задачи
+     */
+    public void remove(Long id) {
+        var document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (var gram : document.grams()) {
+            var ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+            }
+        }
+    }
+
+    /**
+     * Метод поиска задач по строке запроса.
+     * @param query - строка запроса
+     * @param offset - число пропускаемых наиболее релевантных результатов
+     * @param limit - максимальное число результатов
+     * @return - возвращает идентификаторы найденных задач, начиная с наиболее релевантной
+     */
+    @Override
+    public List<Long> search(String query, long offset, int limit) {
+        var normalized = normalize(query).trim();
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        var checkedAt = bulkDeletes.get();
+        var matches = new ArrayList<Match>();
+        var unchecked = new HashMap<Long, Document>();
+        for (var id : candidates(normalized)) {
+            var document = documents.get(id);
+            var score = document == null ? 0 : document.score(normalized);
+            if (score > 0) {
+                matches.add(new Match(id, score));
+                if (document.checkedAt() < checkedAt) {
+                    unchecked.put(id, document);
+                }
+            }
+        }
+        if (!unchecked.isEmpty()) {
+            var deleted = dropDeleted(unchecked, checkedAt);
+            matches.removeIf(match -> deleted.contains(match.id()));
+        }
+        return matches.stream()
+                .sorted(Comparator.comparingInt(Match::score).reversed()
+                        .thenComparing(Match::id, Comparator.reverseOrder()))
+                .skip(offset)
+                .limit(limit)
+                .map(Match::id)
+                .toList();
+    }
+
+    /**
+     * Метод проверки задач, проиндексированных до последнего массового удаления: удаленные задачи
+     * убираются из индекса, остальные отмечаются как проверенные.
+     * @param unchecked - непроверенные задачи и их проиндексированный текст
+     * @param checkedAt - число массовых удалений на момент проверки
+     * @return - возвращает идентификаторы удаленных задач
+     */
+    private Set<Long> dropDeleted(Map<Long, Document> unchecked, long checkedAt) {
+        var existing = new HashSet<>(entityManager
+                .createQuery("select t.id from Task t where t.id in :ids", Long.class)
+                .setParameter("ids", unchecked.keySet())
+                .getResultList());
+        var deleted = new HashSet<Long>();
+        unchecked.forEach((id, document) -> {
+            if (existing.contains(id)) {
+                documents.replace(id, document, document.checkedAt(checkedAt));
+            } else {
+                deleted.add(id);
+                remove(id);
+            }
+        });
+        return deleted;
+    }
+
+    private Set<Long> candidates(String query) {
+        if (query.length() < GRAM) {
+            return documents.keySet();
+        }
+        var lists = grams(query).stream()
+                .map(gram -> postings.getOrDefault(gram, Set.of()))
+                .sorted(Comparator.comparingInt(Set::size))
+                .toList();
+        var result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String text) {
+        var result = new HashSet<String>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            result.add(text.substring(i, i + GRAM));
+        }
+        return result;
+    }
+
+    /**
+     * Проиндексированный текст задачи.
+     * @param title - название в нижнем регистре
+     * @param content - описание в нижнем регистре
+     * @param checkedAt - число массовых удалений, после которого задача точно существовала
+     */
+    private record Document(String title, String content, long checkedAt) {
+
+        Document checkedAt(long value) {
+            return new Document(title, content, value);
+        }
+
+        Set<String> grams() {
+            var result = NgramTaskSearchIndex.grams(title);
+            result.addAll(NgramTaskSearchIndex.grams(content));
+            return result;
+        }
+
+        int score(String query) {
+            var score = 0;
+            if (title.startsWith(query)) {
+                score += 3;
+            } else if (title.contains(query)) {
+                score += 2;
+            }
+            if (content.contains(query)) {
+                score += 1;
+            }
+            return score;
+        }
+    }
+
+    /**
+     * Найденная задача и ее релевантность.
+     * @param id - идентификатор задачи
+     * @param score - релевантность
+     */
+    private record Match(Long id, int score) {
+    }
+}
@@ -0,0 +1,112 @@
+package hexlet.code.search;
+
+import hexlet.code.dto.TaskParamsDTO;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Поиск задач средствами PostgreSQL.
+ * Подстроки ищутся по GIN-индексам pg_trgm на lower(title) и lower(content),
+ * слова - по GIN-индексу tsvector; релевантность считается через ts_rank и similarity.
+ * Индексы создаются миграцией 003-postgresql-search-indexes и поддерживаются самой СУБД,
+ * поэтому синхронизировать их при записи задач не нужно.
+ */
+public class PostgresTaskSearch implements TaskSearch {
+
+    private static final String DOCUMENT = "to_tsvector('simple', coalesce(title, '') || ' ' || coalesce(content, ''))";
+
+    private static final String MATCH = DOCUMENT + " @@ plainto_tsquery('simple', :query)"
+            + " OR lower(title) LIKE :pattern OR lower(content) LIKE :pattern";
+
+    private static final String RANKING = " ORDER BY ts_rank(" + DOCUMENT + ", plainto_tsquery('simple', :query))"
+            + " + similarity(lower(title), :query) DESC, id DESC"
+            + " LIMIT :limit OFFSET :offset";
+
+    private static final String SEARCH = "SELECT id FROM tasks WHERE " + MATCH + RANKING;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public PostgresTaskSearch(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Метод поиска задач по строке запроса.
+     * @param query - строка запроса
+     * @param offset - число пропускаемых наиболее релевантных результатов
+     * @param limit - максимальное число результатов
+     * @return - возвращает идентификаторы найденных задач, начиная с наиболее релевантной
+     */
+    @Override
+    public List<Long> search(String query, long offset, int limit) {
+        return jdbcTemplate.queryForList(SEARCH, parameters(query, offset, limit), Long.class);
+    }
+
+    /**
+     * Метод поиска страницы задач по строке запроса вместе с остальными фильтрами.
+     * Фильтры (те же, что в TaskSpecification.build) добавляются в условие ранжирующего запроса, поэтому
+     * PostgreSQL отбирает, ранжирует и пагинирует задачи одним запросом, а общее число считает
+     * оконной функцией count(*) OVER () в нем же. Отдельный запрос COUNT нужен, только если страница
+     * оказалась за концом результатов.
+     * @param query - строка запроса
+     * @param params - остальные фильтры задач
+     * @param offset - число пропускаемых наиболее релевантных результатов
+     * @param limit - максимальное число результатов
+     * @return - возвращает страницу идентификаторов и точное число найденных задач
+     */
+    @Override
+    public Optional<Page> search(String query, TaskParamsDTO params, long offset, int limit) {
+        var parameters = parameters(query, offset, limit);
+        var condition = new StringBuilder(" WHERE (").append(MATCH).append(')');
+        if (params.getAssigneeId() != null) {
+            condition.append(" AND assignee_id = :assigneeId");
+            parameters.addValue("assigneeId", params.getAssigneeId());
+        }
+        if (params.getTitleCont() != null) {
+            condition.append(" AND lower(title) LIKE :titleCont");
+            parameters.addValue("titleCont", "%" + params.getTitleCont().toLowerCase(Locale.ROOT) + "%");
+        }
+        if (params.getStatus() != null) {
+            condition.append(" AND status = :status");
+            parameters.addValue("status", params.getStatus());
+        }
+        if (params.getLabelId() != null) {
+            condition.append(" AND EXISTS (SELECT 1 FROM task_label tl WHERE tl.task_id = tasks.id")
+                    .append(" AND tl.label_id = :labelId)");
+            parameters.addValue("labelId", params.getLabelId());
+        }
+        var rows = jdbcTemplate.query("SELECT id, count(*) OVER () AS total FROM tasks" + condition + RANKING,
+                parameters, (resultSet, rowNumber) -> new Row(resultSet.getLong("id"), resultSet.getLong("total")));
+        if (!rows.isEmpty()) {
+            return Optional.of(new Page(rows.stream().map(Row::id).toList(), rows.get(0).total()));
+        }
+        var total = offset == 0 ? 0L
+                : jdbcTemplate.queryForObject("SELECT count(*) FROM tasks" + condition, parameters, Long.class);
+        return Optional.of(new Page(List.of(), total));
+    }
+
+    private static MapSqlParameterSource parameters(String query, long offset, int limit) {
+        var normalized = query.toLowerCase(Locale.ROOT).trim();
+        return new MapSqlParameterSource()
+                .addValue("query", normalized)
+                .addValue("pattern", "%" + escapeLike(normalized) + "%")
+                .addValue("limit", limit)
+                .addValue("offset", offset);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Строка результата поиска.
+     * @param id - идентификатор задачи
+     * @param total - общее число найденных задач
+     */
+    private record Row(long id, long total) {
+    }
+}
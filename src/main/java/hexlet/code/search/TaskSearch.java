@@ -0,0 +1,45 @@
+package hexlet.code.search;
+
+import hexlet.code.dto.TaskParamsDTO;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Полнотекстовый поиск задач по названию и описанию.
+ * Реализации: PostgresTaskSearch (индексы pg_trgm и tsvector в PostgreSQL)
+ * и NgramTaskSearchIndex (встроенный n-граммный инвертированный индекс для H2 и разработки).
+ */
+public interface TaskSearch {
+
+    /**
+     * Метод поиска задач по строке запроса.
+     * @param query - строка запроса
+     * @param offset - число пропускаемых наиболее релевантных результатов
+     * @param limit - максимальное число результатов
+     * @return - возвращает идентификаторы найденных задач, начиная с наиболее релевантной
+     */
+    List<Long> search(String query, long offset, int limit);
+
+    /**
+     * Метод поиска страницы задач по строке запроса вместе с остальными фильтрами одним запросом к СУБД.
+     * Реализация без такой возможности возвращает Optional.empty(): тогда фильтры применяются
+     * к кандидатам из search(query, offset, limit) порциями (TaskSearchService).
+     * @param query - строка запроса
+     * @param params - остальные фильтры задач
+     * @param offset - число пропускаемых наиболее релевантных результатов
+     * @param limit - максимальное число результатов
+     * @return - возвращает страницу идентификаторов и точное число найденных задач
+     */
+    default Optional<Page> search(String query, TaskParamsDTO params, long offset, int limit) {
+        return Optional.empty();
+    }
+
+    /**
+     * Страница результатов поиска.
+     * @param ids - идентификаторы задач страницы, начиная с наиболее релевантной
+     * @param total - общее число задач, подходящих под запрос и фильтры
+     */
+    record Page(List<Long> ids, long total) {
+    }
+}
@@ -1,16 +1,24 @@
 package hexlet.code.service;
 
+import hexlet.code.component.ReferenceDataRegistry;
+import hexlet.code.dto.LabelDTO;
 import hexlet.code.model.Label;
 import hexlet.code.repository.LabelRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.List;
+
 @Service
 public class LabelService {
 
     @Autowired
     private LabelRepository labelRepository;
 
+    @Autowired
+    private ReferenceDataRegistry referenceDataRegistry;
+
     /**
      * Метод создания меток при начальной инициализации.
      * @param name - имя метки, передаваемый из DataInitializer.
@@ -20,5 +28,22 @@ public class LabelService {
         var taskStatus = new Label();
         taskStatus.setName(name);
         labelRepository.save(taskStatus);
+        referenceDataRegistry.invalidateLabels();
+    }
+
+    /**
+     * Метод заполнения числа задач меток одним запросом GROUP BY по task_label
+     * (сами задачи и обратная коллекция Label.tasks не загружаются).
+     * @param labels - метки в формате LabelDTO
+     */
+    public void fillTaskCounts(List<LabelDTO> labels) {
+        if (labels.isEmpty()) {
+            return;
+        }
+        var counts = new HashMap<Long, Long>();
+        for (var row : labelRepository.countTasksByLabelIds(labels.stream().map(LabelDTO::getId).toList())) {
+            counts.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+        labels.forEach(label -> label.setTaskCount(counts.getOrDefault(label.getId(), 0L)));
     }
 }
@@ -0,0 +1,114 @@
+package hexlet.code.service;
+
+import hexlet.code.dto.ListingPage;
+import hexlet.code.dto.ListingParamsDTO;
+import hexlet.code.exception.BadRequestException;
+import hexlet.code.repository.ProjectionRepository;
+import hexlet.code.util.PageCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Сервис постраничных списков справочных сущностей (пользователи, метки, статусы).
+ * Параметры запроса те же, что у GET /api/tasks: page и size для выборки по смещению,
+ * after для keyset-пагинации (курсор следующей страницы возвращается отдельно), sort и order для сортировки.
+ * Общее число записей берется отдельным запросом count, а не из размера страницы.
+ */
+@Service
+public class ListingService {
+
+    private static final String ID = "id";
+
+    @Autowired
+    private ProjectionRepository projectionRepository;
+
+    @Value("${listing.page-size.default:100}")
+    private int defaultPageSize;
+
+    @Value("${listing.page-size.max:1000}")
+    private int maxPageSize;
+
+    /**
+     * Метод чтения страницы списка в проекцию.
+     * @param entityType - класс сущности
+     * @param projection - класс проекции (record с компонентом id)
+     * @param sortKeys - атрибуты, по которым разрешена сортировка (значения не должны быть null)
+     * @param params - параметры запроса
+     * @param <E> - тип сущности
+     * @param <R> - тип проекции
+     * @return - возвращает страницу проекций с общим числом записей
+     */
+    public <E, R extends Record> ListingPage<R> list(Class<E> entityType, Class<R> projection, Set<String> sortKeys,
+                                                     ListingParamsDTO params) {
+        var pageSize = resolvePageSize(params.getSize());
+        var after = params.getAfter();
+        if (after == null) {
+            var sort = toSort(resolveSortKey(params.getSort(), sortKeys), resolveDirection(params.getOrder()));
+            var items = projectionRepository.findProjected(entityType, projection, null, sort,
+                    (long) Math.max(params.getPage() - 1, 0) * pageSize, pageSize);
+            return new ListingPage<>(items, projectionRepository.count(entityType), null);
+        }
+
+        var cursor = after.isEmpty() ? null : PageCursor.decode(after);
+        var sortKey = resolveSortKey(cursor == null ? params.getSort() : cursor.getSortKey(), sortKeys);
+        var direction = cursor == null ? resolveDirection(params.getOrder()) : cursor.getDirection();
+        var rows = projectionRepository.findProjected(entityType, projection, cursor, toSort(sortKey, direction),
+                0, pageSize + 1);
+        var items = rows.subList(0, Math.min(rows.size(), pageSize));
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            var last = items.get(items.size() - 1);
+            var value = component(last, sortKey);
+            nextCursor = new PageCursor(sortKey, direction, value == null ? null : value.toString(),
+                    (Long) component(last, ID)).encode();
+        }
+        return new ListingPage<>(items, projectionRepository.count(entityType), nextCursor);
+    }
+
+    private static Sort toSort(String sortKey, Sort.Direction direction) {
+        if (sortKey.equals(ID)) {
+            return Sort.by(direction, ID);
+        }
+        return Sort.by(direction, sortKey).and(Sort.by(direction, ID));
+    }
+
+    private static String resolveSortKey(String sortKey, Set<String> sortKeys) {
+        if (!sortKeys.contains(sortKey)) {
+            throw new BadRequestException("Unsupported sort key " + sortKey);
+        }
+        return sortKey;
+    }
+
+    private static Sort.Direction resolveDirection(String order) {
+        return Sort.Direction.fromOptionalString(order)
+                .orElseThrow(() -> new BadRequestException("Unsupported sort order " + order));
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new BadRequestException("Page size must be positive");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    private static Object component(Record record, String name) {
+        var component = Arrays.stream(record.getClass().getRecordComponents())
+                .filter(c -> c.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException(record.getClass().getSimpleName() + " has no " + name));
+        try {
+            return component.getAccessor().invoke(record);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package hexlet.code.service;
+
+import hexlet.code.dto.TokenPairDTO;
+import hexlet.code.model.RefreshToken;
+import hexlet.code.model.User;
+import hexlet.code.repository.RefreshTokenRepository;
+import hexlet.code.util.JWTUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Сервис токенов обновления. Обновление JWT стоит одного поиска по хэшу токена, без BCrypt.
+ * При каждом обновлении предъявленный токен отзывается и выдается новый (ротация); повторное предъявление
+ * отозванного токена отзывает всю цепочку его потомков.
+ * Токены, которые уже не могут быть использованы, периодически удаляются (purge).
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JWTUtils jwtUtils;
+
+    @Value("${security.refresh-token.ttl:P30D}")
+    private Duration ttl;
+
+    /**
+     * Метод выдачи нового токена обновления (начало новой цепочки ротации) после входа по паролю.
+     * @param user - аутентифицированный пользователь
+     * @return - возвращает значение токена обновления (в базе сохраняется только его хэш).
+     */
+    @Transactional
+    public String issue(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Метод обновления: отзывает предъявленный токен и выдает новую пару токенов.
+     * @param refreshToken - предъявленный токен обновления
+     * @return - возвращает новый JWT доступа и новый токен обновления.
+     * @throws BadCredentialsException - если токен неизвестен, истек или уже был использован.
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public TokenPairDTO refresh(String refreshToken) {
+        var stored = refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        if (stored.isRevoked() || refreshTokenRepository.revokeIfActive(stored.getId()) == 0) {
+            refreshTokenRepository.revokeFamily(stored.getFamily());
+            throw new BadCredentialsException("Refresh token has already been used");
+        }
+        if (!stored.getExpiresAt().isAfter(Instant.now())) {
+            throw new BadCredentialsException("Refresh token has expired");
+        }
+        var user = stored.getUser();
+        return new TokenPairDTO(jwtUtils.generateToken(user.getEmail()), issue(user, stored.getFamily()));
+    }
+
+    /**
+     * Метод отзыва токена обновления вместе со всей его цепочкой ротации (выход из системы).
+     * Неизвестный токен игнорируется.
+     * @param refreshToken - отзываемый токен обновления
+     */
+    @Transactional
+    public void revoke(String refreshToken) {
+        refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .ifPresent(stored -> refreshTokenRepository.revokeFamily(stored.getFamily()));
+    }
+
+    /**
+     * Метод отзыва всех токенов обновления пользователя (например, после смены пароля).
+     * @param user - пользователь
+     */
+    @Transactional
+    public void revokeAll(User user) {
+        refreshTokenRepository.revokeAllOf(user);
+    }
+
+    /**
+     * Метод удаления токенов обновления, которые уже не могут быть использованы: истекших и отозванных
+     * в цепочках, где не осталось действующих токенов (выход из системы, смена пароля, повторное предъявление).
+     * Отозванные токены живой цепочки хранятся до своего истечения: по ним распознается повторное предъявление.
+     */
+    @Scheduled(fixedDelayString = "${security.refresh-token.purge-interval:PT1H}")
+    public void purge() {
+        refreshTokenRepository.deleteUnusable(Instant.now());
+    }
+
+    private String issue(User user, String family) {
+        var bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        var value = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        var token = new RefreshToken();
+        token.setTokenHash(hash(value));
+        token.setFamily(family);
+        token.setUser(user);
+        token.setCreatedAt(Instant.now());
+        token.setExpiresAt(token.getCreatedAt().plus(ttl));
+        refreshTokenRepository.save(token);
+        return value;
+    }
+
+    private static String hash(String value) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
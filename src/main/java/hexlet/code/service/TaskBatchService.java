@@ -0,0 +1,133 @@
+package hexlet.code.service;
+
+import hexlet.code.dto.BatchItemErrorDTO;
+import hexlet.code.dto.TaskCreateDTO;
+import hexlet.code.dto.TaskDTO;
+import hexlet.code.exception.BadRequestException;
+import hexlet.code.exception.BatchValidationException;
+import hexlet.code.mapper.TaskMapper;
+import hexlet.code.mapper.TaskReferenceResolver;
+import hexlet.code.mapper.TaskReferences;
+import hexlet.code.model.Task;
+import hexlet.code.repository.TaskRepository;
+import hexlet.code.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+@Service
+public class TaskBatchService {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskMapper taskMapper;
+
+    @Autowired
+    private TaskReferenceResolver referenceResolver;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int jdbcBatchSize;
+
+    @Value("${tasks.batch.max-size:5000}")
+    private int maxBatchSize;
+
+    /**
+     * Метод пакетного создания задач.
+     * Сначала проверяются все элементы (поля, статусы, метки и исполнители - одним запросом на пакет);
+     * при любой ошибке ничего не сохраняется, а ошибки возвращаются по каждому элементу.
+     * Затем задачи сохраняются порциями по hibernate.jdbc.batch_size: INSERT задач и строк task_label
+     * уходят JDBC-пакетами, а контекст персистентности очищается после каждой порции.
+     * @param dtos - создаваемые задачи в формате TaskCreateDTO
+     * @return - возвращает созданные задачи в порядке запроса
+     */
+    @Transactional
+    public List<TaskDTO> createAll(List<TaskCreateDTO> dtos) {
+        if (dtos.size() > maxBatchSize) {
+            throw new BadRequestException("Batch size must not exceed " + maxBatchSize);
+        }
+        var references = referenceResolver.resolveAvailable(
+                dtos.stream()
+                        .filter(Objects::nonNull)
+                        .filter(dto -> dto.getTaskLabelIds() != null)
+                        .flatMap(dto -> dto.getTaskLabelIds().stream())
+                        .toList(),
+                dtos.stream().filter(Objects::nonNull).map(TaskCreateDTO::getStatus).toList());
+        var assigneeIds = dtos.stream()
+                .filter(Objects::nonNull)
+                .map(TaskCreateDTO::getAssigneeId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        var assignees = assigneeIds.isEmpty() ? Set.<Long>of() : userRepository.findExistingIds(assigneeIds);
+
+        var errors = new ArrayList<BatchItemErrorDTO>();
+        for (int i = 0; i < dtos.size(); i++) {
+            var itemErrors = validate(dtos.get(i), references, assignees);
+            if (!itemErrors.isEmpty()) {
+                errors.add(new BatchItemErrorDTO(i, itemErrors));
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new BatchValidationException(errors);
+        }
+
+        var result = new ArrayList<TaskDTO>(dtos.size());
+        for (int from = 0; from < dtos.size(); from += jdbcBatchSize) {
+            var chunk = new ArrayList<Task>();
+            for (var dto : dtos.subList(from, Math.min(from + jdbcBatchSize, dtos.size()))) {
+                chunk.add(taskMapper.map(dto, references));
+            }
+            taskRepository.saveAll(chunk);
+            entityManager.flush();
+            chunk.forEach(task -> result.add(taskMapper.map(task)));
+            entityManager.clear();
+        }
+        return result;
+    }
+
+    private TreeMap<String, String> validate(TaskCreateDTO dto, TaskReferences references, Set<Long> assignees) {
+        var errors = new TreeMap<String, String>();
+        if (dto == null) {
+            errors.put("task", "must not be null");
+            return errors;
+        }
+        validator.validate(dto).forEach(violation ->
+                errors.putIfAbsent(violation.getPropertyPath().toString(), violation.getMessage()));
+        if (dto.getStatus() != null && !references.hasStatus(dto.getStatus())) {
+            errors.put("status", "TaskStatus with slug " + dto.getStatus() + " not found");
+        }
+        if (dto.getTaskLabelIds() != null) {
+            var unknown = dto.getTaskLabelIds().stream()
+                    .filter(id -> !references.hasLabel(id))
+                    .distinct()
+                    .toList();
+            if (!unknown.isEmpty()) {
+                errors.put("taskLabelIds", "Labels with ids " + unknown + " not found");
+            }
+        }
+        if (dto.getAssigneeId() != null && !assignees.contains(dto.getAssigneeId())) {
+            errors.put("assignee_id", "User with id " + dto.getAssigneeId() + " not found");
+        }
+        return errors;
+    }
+}
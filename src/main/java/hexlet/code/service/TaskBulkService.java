@@ -0,0 +1,160 @@
+package hexlet.code.service;
+
+import hexlet.code.component.TaskWriteTracker;
+import hexlet.code.dto.BulkResultDTO;
+import hexlet.code.dto.TaskBulkUpdateDTO;
+import hexlet.code.dto.TaskParamsDTO;
+import hexlet.code.event.TaskChangedEvent;
+import hexlet.code.exception.BadRequestException;
+import hexlet.code.mapper.TaskReferenceResolver;
+import hexlet.code.model.Task;
+import hexlet.code.repository.TaskBulkSelectionRepository;
+import hexlet.code.repository.TaskRepository;
+import hexlet.code.repository.TaskTombstoneRepository;
+import hexlet.code.repository.UserRepository;
+import hexlet.code.specification.TaskSpecification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Сервис массового изменения и удаления задач по фильтру.
+ * Изменения применяются командами UPDATE/DELETE (и INSERT/DELETE для task_label) без загрузки сущностей
+ * и без чтения идентификаторов в память, поэтому число команд и расход памяти не зависят от числа задач.
+ * Первая команда отбирает задачи по той же спецификации, что и в GET /api/tasks: записывает их идентификаторы
+ * в рабочую таблицу task_bulk_selections под случайным идентификатором операции (INSERT ... SELECT).
+ * Остальные команды находят задачи по отобранным идентификаторам, так что изменение статуса или меток,
+ * по которым отбирались задачи, не меняет их набор. Последняя команда удаляет отобранные строки, а при ошибке
+ * они откатываются вместе с операцией. Так как JPA при этом не участвует, публикуется одно массовое
+ * TaskChangedEvent (без идентификаторов задач).
+ * Удаление задач (в том числе одной задачи) идет только через этот сервис: вместе с задачами в той же
+ * транзакции записываются их отметки об удалении (TaskTombstone) для GET /api/tasks/changes.
+ * Время изменения и удаления берется из TaskWriteTracker, чтобы watermark не обогнал незафиксированную операцию.
+ */
+@Service
+public class TaskBulkService {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Autowired
+    private TaskBulkSelectionRepository taskBulkSelectionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskSpecification taskSpecification;
+
+    @Autowired
+    private TaskReferenceResolver referenceResolver;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TaskWriteTracker writeTracker;
+
+    /**
+     * Метод массового изменения статуса, исполнителя и меток задач, подходящих под фильтр.
+     * @param params - фильтр задач (как в GET /api/tasks)
+     * @param changes - применяемые изменения
+     * @return - возвращает число затронутых задач
+     */
+    @Transactional
+    public BulkResultDTO update(TaskParamsDTO params, TaskBulkUpdateDTO changes) {
+        var status = changes.getStatus().isPresent() ? changes.getStatus().get() : null;
+        if (changes.getStatus().isPresent() && status == null) {
+            throw new BadRequestException("Task status must not be null");
+        }
+        var addLabelIds = nonNull(changes.getAddLabelIds());
+        var removeLabelIds = nonNull(changes.getRemoveLabelIds());
+        var references = referenceResolver.resolve(
+                addLabelIds, status == null ? List.of() : List.of(status));
+        var assignee = changes.getAssigneeId().isPresent() && changes.getAssigneeId().get() != null
+                ? userRepository.findById(changes.getAssigneeId().get())
+                        .orElseThrow(() -> new BadRequestException(
+                                "User with id " + changes.getAssigneeId().get() + " not found"))
+                : null;
+
+        var operation = UUID.randomUUID();
+        var affected = taskRepository.select(operation, specification(params));
+        if (affected == 0) {
+            return new BulkResultDTO(0);
+        }
+        var values = new HashMap<String, Object>();
+        values.put("updatedAt", writeTracker.now());
+        if (status != null) {
+            values.put("taskStatus", references.status(status));
+        }
+        if (changes.getAssigneeId().isPresent()) {
+            values.put("assignee", assignee);
+        }
+        taskRepository.updateSelected(operation, values);
+        if (!removeLabelIds.isEmpty()) {
+            taskRepository.removeLabelsFromSelected(operation, removeLabelIds);
+        }
+        addLabelIds.forEach(labelId -> taskRepository.addLabelToSelected(operation, labelId));
+        taskBulkSelectionRepository.clear(operation);
+        eventPublisher.publishEvent(TaskChangedEvent.bulk(TaskChangedEvent.Type.UPDATED));
+        return new BulkResultDTO(affected);
+    }
+
+    /**
+     * Метод массового удаления задач, подходящих под фильтр (вместе с их строками task_label).
+     * @param params - фильтр задач (как в GET /api/tasks)
+     * @return - возвращает число удаленных задач
+     */
+    @Transactional
+    public BulkResultDTO delete(TaskParamsDTO params) {
+        var operation = UUID.randomUUID();
+        var affected = taskRepository.select(operation, specification(params));
+        if (affected == 0) {
+            return new BulkResultDTO(0);
+        }
+        taskTombstoneRepository.recordDeletedSelected(operation, writeTracker.now());
+        taskRepository.removeAllLabelsFromSelected(operation);
+        taskRepository.deleteSelected(operation);
+        taskBulkSelectionRepository.clear(operation);
+        eventPublisher.publishEvent(TaskChangedEvent.bulk(TaskChangedEvent.Type.DELETED));
+        return new BulkResultDTO(affected);
+    }
+
+    /**
+     * Метод удаления одной задачи (DELETE /api/tasks/{id}).
+     * @param id - идентификатор задачи
+     */
+    @Transactional
+    public void delete(Long id) {
+        var ids = List.of(id);
+        taskTombstoneRepository.recordDeleted(ids, writeTracker.now());
+        taskRepository.removeAllLabels(ids);
+        taskRepository.deleteAllByIds(ids);
+        eventPublisher.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.DELETED, id, null));
+    }
+
+    private Specification<Task> specification(TaskParamsDTO params) {
+        if (params.getQ() != null) {
+            throw new BadRequestException("Search query is not supported by bulk operations");
+        }
+        if (params.getTitleCont() == null && params.getAssigneeId() == null
+                && params.getStatus() == null && params.getLabelId() == null) {
+            throw new BadRequestException("At least one filter is required for bulk operations");
+        }
+        return taskSpecification.build(params);
+    }
+
+    private static List<Long> nonNull(List<Long> ids) {
+        return ids == null ? List.of() : ids.stream().filter(Objects::nonNull).distinct().toList();
+    }
+}
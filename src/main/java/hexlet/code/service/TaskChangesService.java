@@ -0,0 +1,201 @@
+package hexlet.code.service;
+
+import hexlet.code.component.TaskWriteTracker;
+import hexlet.code.dto.TaskChangeDTO;
+import hexlet.code.dto.TaskChangesDTO;
+import hexlet.code.dto.TaskDTO;
+import hexlet.code.exception.BadRequestException;
+import hexlet.code.model.TaskTombstone;
+import hexlet.code.repository.TaskRepository;
+import hexlet.code.repository.TaskTombstoneRepository;
+import hexlet.code.specification.TaskSpecification;
+import hexlet.code.util.PageCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис синхронизации изменений задач для GET /api/tasks/changes.
+ * Изменения - это задачи, записанные после watermark (по updatedAt), и отметки об удалении (TaskTombstone),
+ * слитые в порядке (время записи, id). Watermark - непрозрачный курсор по (время, id) последнего изменения.
+ * Время записи выставляется до фиксации транзакции, и транзакции могут зафиксироваться не в порядке
+ * своего времени записи. Поэтому watermark не сдвигается ни дальше самого раннего времени записи
+ * незафиксированных транзакций (TaskWriteTracker), ни дальше, чем на tasks.changes.settle до текущего момента
+ * (оно покрывает запись, еще не учтенную в TaskWriteTracker, и записи других экземпляров): самые свежие
+ * изменения выдаются повторно (upsert и delete идемпотентны), зато изменение не пропускается, сколько бы
+ * ни длилась записавшая его транзакция.
+ */
+@Service
+public class TaskChangesService {
+
+    private static final String WATERMARK_KEY = "changedAt";
+
+    private static final Comparator<TaskChangeDTO> CHANGE_ORDER =
+            Comparator.comparing(TaskChangeDTO::getChangedAt).thenComparing(TaskChangeDTO::getId);
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Autowired
+    private TaskSpecification taskSpecification;
+
+    @Autowired
+    private TaskWriteTracker writeTracker;
+
+    @Value("${tasks.changes.page-size.default:500}")
+    private int defaultPageSize;
+
+    @Value("${tasks.changes.page-size.max:5000}")
+    private int maxPageSize;
+
+    @Value("${tasks.changes.settle:PT5S}")
+    private Duration settle;
+
+    @Value("${tasks.changes.tombstone-retention:P30D}")
+    private Duration tombstoneRetention;
+
+    /**
+     * Метод получения изменений задач после watermark.
+     * @param watermark - watermark из предыдущего ответа (или null для первой, полной синхронизации)
+     * @param size - максимальное число изменений (или null для tasks.changes.page-size.default)
+     * @return - возвращает изменения в порядке записи и следующий watermark
+     */
+    @Transactional(readOnly = true)
+    public TaskChangesDTO findChanges(String watermark, Integer size) {
+        var limit = resolvePageSize(size);
+        var now = Instant.now();
+        var inFlight = writeTracker.oldestInFlight();
+        var from = watermark == null ? null : decode(watermark);
+        if (from != null && from.time().isBefore(now.minus(tombstoneRetention))) {
+            throw new ResponseStatusException(HttpStatus.GONE,
+                    "Watermark is older than the deletion history, tasks must be synchronized from scratch");
+        }
+        var since = from == null ? new Position(Instant.EPOCH, 0L) : from;
+
+        var changes = new ArrayList<TaskChangeDTO>();
+        taskRepository.findUpdatedAfter(since.time(), since.id(), limit + 1)
+                .forEach((id, updatedAt) -> changes.add(new TaskChangeDTO(TaskChangeDTO.UPSERT, id, updatedAt, null)));
+        if (from != null) {
+            // при первой синхронизации у клиента еще нет задач, и удалять ему нечего
+            for (var tombstone : taskTombstoneRepository.findDeletedAfter(since.time(), since.id(),
+                    Limit.of(limit + 1))) {
+                changes.add(toChange(tombstone));
+            }
+        }
+        changes.sort(CHANGE_ORDER);
+        var hasMore = changes.size() > limit;
+        var page = new ArrayList<>(changes.subList(0, Math.min(changes.size(), limit)));
+        fillTasks(page);
+
+        var next = since;
+        if (!page.isEmpty()) {
+            var last = page.get(page.size() - 1);
+            next = new Position(last.getChangedAt(), last.getId());
+        }
+        var settled = new Position(now.minus(settle), Long.MAX_VALUE);
+        if (inFlight != null) {
+            // БД хранит время с точностью до микросекунды, строка транзакции не окажется раньше этой позиции
+            var beforeInFlight = new Position(inFlight.truncatedTo(ChronoUnit.MICROS).minus(1, ChronoUnit.MICROS),
+                    Long.MAX_VALUE);
+            settled = beforeInFlight.compareTo(settled) < 0 ? beforeInFlight : settled;
+        }
+        if (next.compareTo(settled) > 0) {
+            // недавние изменения будут выданы еще раз, когда окно tasks.changes.settle пройдет
+            // и записавшие их транзакции завершатся
+            next = since.compareTo(settled) > 0 ? since : settled;
+            hasMore = false;
+        }
+        var result = new TaskChangesDTO();
+        result.setChanges(page);
+        result.setWatermark(encode(next));
+        result.setHasMore(hasMore);
+        return result;
+    }
+
+    /**
+     * Метод удаления отметок об удалении старше tasks.changes.tombstone-retention.
+     */
+    @Scheduled(fixedDelayString = "${tasks.changes.prune-interval:PT1H}")
+    public void pruneTombstones() {
+        taskTombstoneRepository.deleteOlderThan(Instant.now().minus(tombstoneRetention));
+    }
+
+    private void fillTasks(List<TaskChangeDTO> page) {
+        var ids = page.stream()
+                .filter(change -> change.getType().equals(TaskChangeDTO.UPSERT))
+                .map(TaskChangeDTO::getId)
+                .toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        var tasks = taskRepository.findTaskDTOs(taskSpecification.withIds(ids), Sort.unsorted(), 0, ids.size())
+                .stream()
+                .collect(Collectors.toMap(TaskDTO::getId, Function.identity()));
+        page.forEach(change -> change.setTask(tasks.get(change.getId())));
+        // задача, удаленная после выборки изменений, придет со своей отметкой об удалении в следующем ответе
+        page.removeIf(change -> change.getType().equals(TaskChangeDTO.UPSERT) && change.getTask() == null);
+    }
+
+    private static TaskChangeDTO toChange(TaskTombstone tombstone) {
+        return new TaskChangeDTO(TaskChangeDTO.DELETE, tombstone.getTaskId(), tombstone.getDeletedAt(), null);
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new BadRequestException("Page size must be positive");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    private static String encode(Position position) {
+        return new PageCursor(WATERMARK_KEY, Sort.Direction.ASC, position.time().toString(), position.id()).encode();
+    }
+
+    private static Position decode(String watermark) {
+        var cursor = PageCursor.decode(watermark);
+        if (!WATERMARK_KEY.equals(cursor.getSortKey()) || cursor.getId() == null) {
+            throw new BadRequestException("Invalid watermark " + watermark);
+        }
+        try {
+            return new Position(Instant.parse(cursor.getValue()), cursor.getId());
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid watermark " + watermark);
+        }
+    }
+
+    /**
+     * Позиция в порядке изменений.
+     * @param time - время записи
+     * @param id - идентификатор задачи
+     */
+    private record Position(Instant time, Long id) implements Comparable<Position> {
+
+        @Override
+        public int compareTo(Position other) {
+            var byTime = time.compareTo(other.time);
+            return byTime != 0 ? byTime : id.compareTo(other.id);
+        }
+    }
+}
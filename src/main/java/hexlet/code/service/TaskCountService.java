@@ -0,0 +1,139 @@
+package hexlet.code.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import hexlet.code.component.DatabasePlatform;
+import hexlet.code.dto.TaskParamsDTO;
+import hexlet.code.event.TaskChangedEvent;
+import hexlet.code.exception.BadRequestException;
+import hexlet.code.repository.TaskRepository;
+import hexlet.code.specification.TaskSpecification;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Сервис общего числа задач для заголовка X-Total-Count списка задач.
+ * Точное число считается запросом count по тем же фильтрам, что и страница, и кэшируется для нормализованного
+ * набора фильтров. Кэш сбрасывается после фиксации любой записи задач этого экземпляра приложения,
+ * а записи других экземпляров учитываются не позже чем через tasks.count.ttl.
+ * Режим estimate для списка без фильтров в PostgreSQL берет оценку числа строк из статистики планировщика
+ * (pg_class.reltuples) без чтения таблицы.
+ */
+@Service
+public class TaskCountService {
+
+    /**
+     * Режим подсчета общего числа задач.
+     */
+    public enum Mode {
+        EXACT,
+        ESTIMATE;
+
+        /**
+         * Метод поиска режима по значению параметра запроса.
+         * @param value - значение параметра count (exact или estimate)
+         * @return - возвращает режим подсчета
+         */
+        public static Mode of(String value) {
+            return Arrays.stream(values())
+                    .filter(mode -> mode.name().equalsIgnoreCase(value))
+                    .findFirst()
+                    .orElseThrow(() -> new BadRequestException("Unsupported count mode " + value));
+        }
+    }
+
+    private static final String ESTIMATE_QUERY = "SELECT reltuples::bigint FROM pg_class WHERE oid = 'tasks'::regclass";
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskSpecification taskSpecification;
+
+    @Autowired
+    private DatabasePlatform databasePlatform;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${tasks.count.ttl:PT1M}")
+    private Duration ttl;
+
+    @Value("${tasks.count.max-entries:1000}")
+    private long maxEntries;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private Cache<List<Object>, Long> cache;
+
+    @PostConstruct
+    private void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Метод получения общего числа задач, подходящих под фильтр.
+     * Оценка используется только в режиме estimate, без фильтров и в PostgreSQL; иначе считается точное число.
+     * @param params - фильтр задач в формате TaskParamsDTO (без q)
+     * @param mode - режим подсчета
+     * @return - возвращает общее число задач и признак оценки
+     */
+    public Total count(TaskParamsDTO params, Mode mode) {
+        if (mode == Mode.ESTIMATE && isUnfiltered(params) && databasePlatform.isPostgreSQL()) {
+            var estimate = jdbcTemplate.queryForObject(ESTIMATE_QUERY, Long.class);
+            // reltuples = -1, пока таблица ни разу не анализировалась
+            if (estimate != null && estimate >= 0) {
+                return new Total(estimate, true);
+            }
+        }
+        var key = Arrays.<Object>asList(
+                params.getTitleCont() == null ? null : params.getTitleCont().toLowerCase(Locale.ROOT),
+                params.getAssigneeId(), params.getStatus(), params.getLabelId());
+        var cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return new Total(cached, false);
+        }
+        var before = generation.get();
+        var value = taskRepository.count(taskSpecification.build(params));
+        if (generation.get() == before) {
+            cache.put(key, value);
+        }
+        return new Total(value, false);
+    }
+
+    /**
+     * Метод сброса кэша после фиксации изменения задач (в том числе массового).
+     * @param event - событие изменения задачи
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private static boolean isUnfiltered(TaskParamsDTO params) {
+        return params.getTitleCont() == null && params.getAssigneeId() == null
+                && params.getStatus() == null && params.getLabelId() == null;
+    }
+
+    /**
+     * Общее число задач.
+     * @param value - число задач
+     * @param estimated - true, если это оценка по статистике планировщика
+     */
+    public record Total(long value, boolean estimated) {
+    }
+}
@@ -0,0 +1,134 @@
+package hexlet.code.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.dto.TaskDTO;
+import hexlet.code.exception.BadRequestException;
+import hexlet.code.model.Task;
+import hexlet.code.repository.TaskRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис потоковой выгрузки задач в NDJSON или CSV.
+ * Задачи читаются курсором порциями (TaskRepository.streamTaskDTOs) и сразу пишутся в выходной поток,
+ * который сбрасывается после каждой порции, поэтому память не растет с числом выгружаемых задач.
+ */
+@Service
+public class TaskExportService {
+
+    private static final String CSV_HEADER = "id,index,title,content,status,assignee_id,createdAt,taskLabelIds";
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${tasks.export.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Формат выгрузки (и загрузки, см. TaskImportService).
+     */
+    @Getter
+    @AllArgsConstructor
+    public enum Format {
+        NDJSON("ndjson", MediaType.parseMediaType("application/x-ndjson")),
+        CSV("csv", MediaType.parseMediaType("text/csv;charset=UTF-8"));
+
+        private final String extension;
+
+        private final MediaType mediaType;
+
+        /**
+         * Метод получения формата по имени из запроса.
+         * @param name - имя формата (ndjson или csv)
+         * @return - возвращает формат
+         */
+        public static Format of(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Unsupported format " + name);
+            }
+        }
+    }
+
+    /**
+     * Метод выгрузки всех задач, подходящих под спецификацию, в выходной поток (в порядке id).
+     * @param specification - условия отбора задач
+     * @param format - формат выгрузки
+     * @param out - выходной поток ответа
+     * @return - возвращает число выгруженных задач
+     * @throws IOException - при ошибке записи в поток
+     */
+    public long export(Specification<Task> specification, Format format, OutputStream out) throws IOException {
+        var buffered = new BufferedOutputStream(out);
+        if (format == Format.CSV) {
+            buffered.write((CSV_HEADER + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        try {
+            var count = taskRepository.streamTaskDTOs(specification, Sort.by("id"), chunkSize, chunk -> {
+                try {
+                    writeChunk(chunk, format, buffered);
+                    buffered.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            buffered.flush();
+            return count;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeChunk(List<TaskDTO> chunk, Format format, OutputStream out) throws IOException {
+        for (var task : chunk) {
+            if (format == Format.NDJSON) {
+                out.write(objectMapper.writeValueAsBytes(task));
+            } else {
+                out.write(toCsv(task).getBytes(StandardCharsets.UTF_8));
+            }
+            out.write('\n');
+        }
+    }
+
+    private static String toCsv(TaskDTO task) {
+        return String.join(",",
+                csv(task.getId()),
+                csv(task.getIndex()),
+                csv(task.getTitle()),
+                csv(task.getContent()),
+                csv(task.getStatus()),
+                csv(task.getAssigneeId()),
+                csv(task.getCreatedAt()),
+                csv(task.getTaskLabelIds().stream().map(String::valueOf).collect(Collectors.joining(";"))));
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        var text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+}
@@ -0,0 +1,362 @@
+package hexlet.code.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.component.ReferenceDataRegistry;
+import hexlet.code.dto.ImportJobDTO;
+import hexlet.code.dto.TaskCreateDTO;
+import hexlet.code.dto.TaskImportRecord;
+import hexlet.code.exception.BadRequestException;
+import hexlet.code.exception.MalformedRecordException;
+import hexlet.code.exception.ResourceNotFoundException;
+import hexlet.code.mapper.ImportJobMapper;
+import hexlet.code.mapper.TaskMapper;
+import hexlet.code.mapper.TaskReferenceResolver;
+import hexlet.code.mapper.TaskReferences;
+import hexlet.code.model.ImportJob;
+import hexlet.code.model.Label;
+import hexlet.code.model.Task;
+import hexlet.code.model.User;
+import hexlet.code.repository.ImportJobRepository;
+import hexlet.code.repository.TaskRepository;
+import hexlet.code.repository.UserRepository;
+import hexlet.code.util.TaskImportReader;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис потоковой загрузки задач из NDJSON или CSV (перенос данных из другого трекера).
+ * Файл читается по записи, записи собираются в порции по tasks.import.chunk-size, и каждая порция
+ * сохраняется в своей транзакции вместе со счетчиками задания ImportJob. Поэтому ни память, ни размер
+ * транзакции не зависят от размера файла, а после сбоя загрузку того же файла можно продолжить
+ * с тем же заданием: уже зафиксированные записи пропускаются.
+ * Статусы, метки (по имени) и исполнители (по email) разрешаются одним запросом на порцию;
+ * статусы и метки берутся из ReferenceDataRegistry, а email - из LRU-кэша задания.
+ * Записи с неизвестными ссылками или неверными полями, а также записи, которые не удалось разобрать,
+ * не сохраняются, а учитываются как отклоненные (с номером записи), и загрузка продолжается.
+ */
+@Service
+public class TaskImportService {
+
+    private static final int MAX_RECORDED_REJECTIONS = 100;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @Autowired
+    private ImportJobMapper importJobMapper;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskMapper taskMapper;
+
+    @Autowired
+    private TaskReferenceResolver referenceResolver;
+
+    @Autowired
+    private ReferenceDataRegistry referenceDataRegistry;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${tasks.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${tasks.import.email-cache-size:10000}")
+    private int emailCacheSize;
+
+    @Value("${tasks.import.stale-after:PT10M}")
+    private Duration staleAfter;
+
+    /**
+     * Метод получения состояния задания загрузки.
+     * @param id - идентификатор задания
+     * @return - возвращает задание в формате ImportJobDTO
+     */
+    public ImportJobDTO findJob(Long id) {
+        return importJobRepository.findById(id)
+                .map(importJobMapper::map)
+                .orElseThrow(() -> new ResourceNotFoundException("Import job with id " + id + " not found"));
+    }
+
+    /**
+     * Метод загрузки задач из входного потока.
+     * Ошибки чтения файла и базы данных не пробрасываются, а завершают задание со статусом FAILED:
+     * счетчики задания при этом соответствуют последней зафиксированной порции.
+     * @param in - входной поток (тело запроса или файл)
+     * @param format - формат файла
+     * @param jobId - идентификатор прерванного задания для продолжения (или null для нового задания)
+     * @param progress - получатель состояния задания после каждой зафиксированной порции
+     * @return - возвращает итоговое состояние задания
+     */
+    public ImportJobDTO importTasks(InputStream in, TaskExportService.Format format, Long jobId,
+                                    Consumer<ImportJobDTO> progress) {
+        var job = jobId == null ? createJob(format) : claimJob(jobId, format);
+        var id = job.getId();
+        Map<String, Long> emails = lruCache(emailCacheSize);
+        try (var reader = open(format, in)) {
+            var skipped = reader.skip(job.getProcessed());
+            if (skipped < job.getProcessed()) {
+                throw new BadRequestException("Input has " + skipped + " records, but "
+                        + job.getProcessed() + " were already processed");
+            }
+            var chunk = new ArrayList<ChunkEntry>(chunkSize);
+            while (true) {
+                chunk.clear();
+                while (chunk.size() < chunkSize) {
+                    TaskImportRecord record;
+                    try {
+                        record = reader.next();
+                    } catch (MalformedRecordException e) {
+                        chunk.add(new ChunkEntry(reader.getPosition(), null, e.getMessage()));
+                        continue;
+                    }
+                    if (record == null) {
+                        break;
+                    }
+                    chunk.add(new ChunkEntry(reader.getPosition(), record, null));
+                }
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                job = transactionTemplate.execute(status -> importChunk(id, chunk, emails));
+                progress.accept(importJobMapper.map(job));
+            }
+            job = finishJob(id, ImportJob.Status.COMPLETED, null);
+        } catch (IOException | RuntimeException e) {
+            job = finishJob(id, ImportJob.Status.FAILED, e.getMessage() == null ? e.toString() : e.getMessage());
+        }
+        return importJobMapper.map(job);
+    }
+
+    private TaskImportReader open(TaskExportService.Format format, InputStream in) throws IOException {
+        return format == TaskExportService.Format.CSV
+                ? TaskImportReader.csv(in)
+                : TaskImportReader.ndjson(objectMapper, in);
+    }
+
+    private ImportJob createJob(TaskExportService.Format format) {
+        return transactionTemplate.execute(status -> {
+            var now = Instant.now();
+            var job = new ImportJob();
+            job.setFormat(format.getExtension());
+            job.setStatus(ImportJob.Status.RUNNING);
+            job.setCreatedAt(now);
+            job.setUpdatedAt(now);
+            return importJobRepository.save(job);
+        });
+    }
+
+    private ImportJob claimJob(Long id, TaskExportService.Format format) {
+        return transactionTemplate.execute(status -> {
+            var job = importJobRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Import job with id " + id + " not found"));
+            if (!job.getFormat().equals(format.getExtension())) {
+                throw new BadRequestException("Import job " + id + " was started with format " + job.getFormat());
+            }
+            if (job.getStatus() == ImportJob.Status.COMPLETED) {
+                throw new BadRequestException("Import job " + id + " is already completed");
+            }
+            var now = Instant.now();
+            var claimed = importJobRepository.claim(id, now, now.minus(staleAfter),
+                    ImportJob.Status.RUNNING, ImportJob.Status.FAILED);
+            if (claimed == 0) {
+                throw new BadRequestException("Import job " + id + " is still running");
+            }
+            entityManager.refresh(job);
+            return job;
+        });
+    }
+
+    private ImportJob finishJob(Long id, ImportJob.Status result, String error) {
+        return transactionTemplate.execute(status -> {
+            entityManager.clear();
+            var job = importJobRepository.findById(id).orElseThrow();
+            job.setStatus(result);
+            job.setError(error == null ? null : "Stopped after record " + job.getProcessed() + ": " + error);
+            job.setUpdatedAt(Instant.now());
+            return job;
+        });
+    }
+
+    private ImportJob importChunk(Long jobId, List<ChunkEntry> entries, Map<String, Long> emails) {
+        var chunk = entries.stream()
+                .map(ChunkEntry::record)
+                .filter(Objects::nonNull)
+                .toList();
+        var labels = referenceDataRegistry.findLabelsByName(chunk.stream()
+                .filter(record -> record.getLabels() != null)
+                .flatMap(record -> record.getLabels().stream())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new)));
+        var assignees = resolveAssignees(chunk.stream()
+                .map(TaskImportRecord::getAssigneeEmail)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new)), emails);
+        var references = referenceResolver.resolveAvailable(
+                labels.values().stream().map(Label::getId).toList(),
+                chunk.stream().map(TaskImportRecord::getStatus).toList());
+
+        var tasks = new ArrayList<Task>(chunk.size());
+        var rejections = new ArrayList<String>();
+        for (var entry : entries) {
+            if (entry.error() != null) {
+                rejections.add("Record " + entry.number() + ": " + entry.error());
+                continue;
+            }
+            var record = entry.record();
+            Task task;
+            try {
+                var dto = toCreateDTO(record, labels);
+                var errors = validate(record, dto, labels, assignees, references);
+                if (!errors.isEmpty()) {
+                    rejections.add("Record " + entry.number() + ": " + errors);
+                    continue;
+                }
+                task = taskMapper.map(dto, references);
+            } catch (BadRequestException | IllegalArgumentException e) {
+                rejections.add("Record " + entry.number() + ": " + e.getMessage());
+                continue;
+            }
+            if (record.getAssigneeEmail() != null) {
+                task.setAssignee(entityManager.getReference(User.class, assignees.get(record.getAssigneeEmail())));
+            }
+            tasks.add(task);
+        }
+        taskRepository.saveAll(tasks);
+        entityManager.flush();
+        entityManager.clear();
+
+        var job = importJobRepository.findById(jobId).orElseThrow();
+        job.setProcessed(job.getProcessed() + entries.size());
+        job.setImported(job.getImported() + tasks.size());
+        job.setRejected(job.getRejected() + rejections.size());
+        job.setRejections(appendRejections(job.getRejections(), job.getRejected() - rejections.size(), rejections));
+        job.setUpdatedAt(Instant.now());
+        return job;
+    }
+
+    private static TaskCreateDTO toCreateDTO(TaskImportRecord record, Map<String, Label> labels) {
+        var dto = new TaskCreateDTO();
+        dto.setIndex(record.getIndex());
+        dto.setTitle(record.getTitle());
+        dto.setContent(record.getContent());
+        dto.setStatus(record.getStatus());
+        if (record.getLabels() != null) {
+            dto.setTaskLabelIds(record.getLabels().stream()
+                    .map(labels::get)
+                    .filter(Objects::nonNull)
+                    .map(Label::getId)
+                    .distinct()
+                    .toList());
+        }
+        return dto;
+    }
+
+    private TreeMap<String, String> validate(TaskImportRecord record, TaskCreateDTO dto, Map<String, Label> labels,
+                                             Map<String, Long> assignees, TaskReferences references) {
+        var errors = new TreeMap<String, String>();
+        validator.validate(dto).forEach(violation ->
+                errors.putIfAbsent(violation.getPropertyPath().toString(), violation.getMessage()));
+        if (dto.getStatus() != null && !references.hasStatus(dto.getStatus())) {
+            errors.put("status", "TaskStatus with slug " + dto.getStatus() + " not found");
+        }
+        if (record.getLabels() != null) {
+            var unknown = record.getLabels().stream()
+                    .filter(name -> name == null || !labels.containsKey(name))
+                    .distinct()
+                    .toList();
+            if (!unknown.isEmpty()) {
+                errors.put("labels", "Labels with names " + unknown + " not found");
+            }
+        }
+        if (record.getAssigneeEmail() != null && assignees.get(record.getAssigneeEmail()) == null) {
+            errors.put("assignee_email", "User with email " + record.getAssigneeEmail() + " not found");
+        }
+        return errors;
+    }
+
+    private Map<String, Long> resolveAssignees(Collection<String> wanted, Map<String, Long> cache) {
+        var result = new HashMap<String, Long>();
+        var missing = new ArrayList<String>();
+        for (var email : wanted) {
+            if (cache.containsKey(email)) {
+                result.put(email, cache.get(email));
+            } else {
+                missing.add(email);
+            }
+        }
+        if (!missing.isEmpty()) {
+            var found = new HashMap<String, Long>();
+            userRepository.findIdsByEmails(missing).forEach(row -> found.put((String) row[0], (Long) row[1]));
+            for (var email : missing) {
+                result.put(email, found.get(email));
+                cache.put(email, found.get(email));
+            }
+        }
+        return result;
+    }
+
+    private static String appendRejections(String recorded, long recordedCount, List<String> rejections) {
+        var free = (int) Math.max(0, MAX_RECORDED_REJECTIONS - recordedCount);
+        if (free == 0 || rejections.isEmpty()) {
+            return recorded;
+        }
+        var added = rejections.stream()
+                .limit(free)
+                .map(message -> message.replace('\n', ' '))
+                .collect(Collectors.joining("\n"));
+        return recorded == null || recorded.isEmpty() ? added : recorded + "\n" + added;
+    }
+
+    private static <K, V> Map<K, V> lruCache(int maxSize) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Запись порции загрузки.
+     * @param number - номер записи в файле (с единицы)
+     * @param record - прочитанная запись (или null, если запись не удалось разобрать)
+     * @param error - причина, по которой запись не удалось разобрать
+     */
+    private record ChunkEntry(long number, TaskImportRecord record, String error) {
+    }
+}
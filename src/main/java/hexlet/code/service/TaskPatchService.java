@@ -0,0 +1,110 @@
+package hexlet.code.service;
+
+import hexlet.code.component.TaskWriteTracker;
+import hexlet.code.dto.TaskDTO;
+import hexlet.code.dto.TaskUpdateDTO;
+import hexlet.code.event.TaskChangedEvent;
+import hexlet.code.exception.BadRequestException;
+import hexlet.code.exception.ResourceNotFoundException;
+import hexlet.code.mapper.JsonNullableMapper;
+import hexlet.code.mapper.TaskReferenceResolver;
+import hexlet.code.repository.TaskRepository;
+import hexlet.code.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Сервис частичного изменения задачи (PATCH /api/tasks/{id}) без загрузки сущности.
+ * Переданные поля TaskUpdateDTO записываются одной командой UPDATE, метки меняются разницей строк task_label
+ * (удаляются лишние и добавляются недостающие), а результат читается проекцией в TaskDTO.
+ * Так как JPA при этом не участвует, событие TaskChangedEvent публикуется здесь же, а updatedAt выставляется явно.
+ */
+@Service
+public class TaskPatchService {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskReferenceResolver referenceResolver;
+
+    @Autowired
+    private JsonNullableMapper jsonNullableMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TaskWriteTracker writeTracker;
+
+    /**
+     * Метод изменения переданных полей задачи.
+     * @param id - идентификатор задачи
+     * @param data - изменения задачи в формате TaskUpdateDTO (учитываются только переданные поля)
+     * @return - возвращает измененную задачу в формате TaskDTO
+     */
+    @Transactional
+    public TaskDTO patch(Long id, TaskUpdateDTO data) {
+        var references = referenceResolver.resolveForUpdate(List.of(data));
+        var values = new LinkedHashMap<String, Object>();
+        if (jsonNullableMapper.isPresent(data.getIndex())) {
+            values.put("index", data.getIndex().get());
+        }
+        if (jsonNullableMapper.isPresent(data.getTitle())) {
+            values.put("name", data.getTitle().get());
+        }
+        if (jsonNullableMapper.isPresent(data.getContent())) {
+            values.put("description", data.getContent().get());
+        }
+        if (jsonNullableMapper.isPresent(data.getStatus())) {
+            var status = references.status(data.getStatus().get());
+            if (status == null) {
+                throw new BadRequestException("Task status must not be null");
+            }
+            values.put("taskStatus", status);
+        }
+        if (jsonNullableMapper.isPresent(data.getAssigneeId())) {
+            var assigneeId = data.getAssigneeId().get();
+            if (assigneeId != null && !userRepository.existsById(assigneeId)) {
+                throw new BadRequestException("User with id " + assigneeId + " not found");
+            }
+            values.put("assignee", assigneeId == null ? null : userRepository.getReferenceById(assigneeId));
+        }
+        values.put("updatedAt", writeTracker.now());
+        if (taskRepository.updateFields(id, values) == 0) {
+            throw new ResourceNotFoundException("Task with id " + id + " not found");
+        }
+        if (jsonNullableMapper.isPresent(data.getTaskLabelIds())) {
+            replaceLabels(id, data.getTaskLabelIds().get());
+        }
+        var task = taskRepository.findTaskDTOById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Task with id " + id + " not found"));
+        eventPublisher.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, id, task));
+        return task;
+    }
+
+    private void replaceLabels(Long id, List<Long> labelIds) {
+        var wanted = labelIds == null ? new LinkedHashSet<Long>() : labelIds.stream()
+                .filter(Objects::nonNull)
+                .collect(LinkedHashSet<Long>::new, LinkedHashSet::add, LinkedHashSet::addAll);
+        var current = new HashSet<>(taskRepository.findLabelIdsByTaskId(id));
+        var removed = current.stream().filter(labelId -> !wanted.contains(labelId)).toList();
+        if (!removed.isEmpty()) {
+            taskRepository.removeLabels(List.of(id), removed);
+        }
+        wanted.stream()
+                .filter(labelId -> !current.contains(labelId))
+                .forEach(labelId -> taskRepository.addLabel(List.of(id), labelId));
+    }
+}
@@ -0,0 +1,105 @@
+package hexlet.code.service;
+
+import hexlet.code.dto.TaskDTO;
+import hexlet.code.dto.TaskParamsDTO;
+import hexlet.code.repository.TaskRepository;
+import hexlet.code.search.TaskSearch;
+import hexlet.code.specification.TaskSpecification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+@Service
+public class TaskSearchService {
+
+    @Autowired
+    private TaskSearch taskSearch;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskSpecification taskSpecification;
+
+    @Value("${tasks.search.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${tasks.search.max-candidates:1000}")
+    private int maxCandidates;
+
+    /**
+     * Метод полнотекстового поиска задач с учетом остальных фильтров.
+     * Если поиск умеет применять фильтры сам (PostgreSQL), СУБД отбирает, ранжирует и пагинирует задачи
+     * одним запросом, и общее число точное. Иначе (n-граммный индекс) кандидаты читаются из индекса порциями
+     * по tasks.search.batch-size в порядке релевантности, каждая порция отсекается фильтрами одним запросом
+     * идентификаторов, и порции читаются, пока страница не заполнена, поэтому фильтры не теряют совпадений
+     * и дальние страницы не пустеют. Когда страница заполнена, а просмотрено уже не меньше
+     * tasks.search.max-candidates кандидатов, чтение останавливается: общее число тогда не точное,
+     * а нижняя оценка (Total.estimated). В обоих случаях в TaskDTO читаются только строки запрошенной страницы.
+     * @param query - строка поиска
+     * @param params - остальные фильтры задач
+     * @param offset - смещение первой задачи страницы
+     * @param limit - размер страницы
+     * @return - возвращает страницу задач в порядке убывания релевантности и число найденных задач.
+     */
+    public Result search(String query, TaskParamsDTO params, long offset, int limit) {
+        var page = taskSearch.search(query, params, offset, limit);
+        if (page.isPresent()) {
+            return new Result(findPage(page.get().ids()), new TaskCountService.Total(page.get().total(), false));
+        }
+        var specification = taskSpecification.build(params);
+        var pageIds = new ArrayList<Long>();
+        var found = 0L;
+        var scanned = 0L;
+        var exhausted = false;
+        while (!exhausted && (found < offset + limit || scanned < maxCandidates)) {
+            var batch = taskSearch.search(query, scanned, batchSize);
+            scanned += batch.size();
+            exhausted = batch.size() < batchSize;
+            if (batch.isEmpty()) {
+                continue;
+            }
+            var matching = new HashSet<>(taskRepository.findTaskIds(
+                    specification.and(taskSpecification.withIds(batch)), Sort.unsorted(), 0, batch.size()));
+            for (var id : batch) {
+                if (!matching.contains(id)) {
+                    continue;
+                }
+                if (found >= offset && pageIds.size() < limit) {
+                    pageIds.add(id);
+                }
+                found++;
+            }
+        }
+        return new Result(findPage(pageIds), new TaskCountService.Total(found, !exhausted));
+    }
+
+    private List<TaskDTO> findPage(List<Long> pageIds) {
+        if (pageIds.isEmpty()) {
+            return List.of();
+        }
+        var positions = new HashMap<Long, Integer>();
+        for (int i = 0; i < pageIds.size(); i++) {
+            positions.put(pageIds.get(i), i);
+        }
+        return taskRepository.findTaskDTOs(taskSpecification.withIds(pageIds), Sort.unsorted(), 0, pageIds.size())
+                .stream()
+                .sorted(Comparator.comparing(task -> positions.get(task.getId())))
+                .toList();
+    }
+
+    /**
+     * Страница результатов поиска.
+     * @param items - задачи страницы в порядке релевантности
+     * @param total - число найденных задач (точное или нижняя оценка)
+     */
+    public record Result(List<TaskDTO> items, TaskCountService.Total total) {
+    }
+}
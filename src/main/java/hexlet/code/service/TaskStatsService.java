@@ -0,0 +1,109 @@
+package hexlet.code.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import hexlet.code.dto.TaskParamsDTO;
+import hexlet.code.dto.TaskStatsDTO;
+import hexlet.code.model.Task;
+import hexlet.code.repository.TaskRepository;
+import hexlet.code.specification.TaskSpecification;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Сервис сводной статистики задач для GET /api/tasks/stats.
+ * Общее число задач и числа по статусам, исполнителям и меткам считаются четырьмя запросами GROUP BY,
+ * которые выполняются параллельно (каждый в своей транзакции только для чтения) на applicationTaskExecutor.
+ * Результат хранится tasks.stats.ttl для каждого набора фильтров; одновременные запросы с одним набором
+ * фильтров ждут одного вычисления.
+ */
+@Service
+public class TaskStatsService {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskSpecification taskSpecification;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor taskExecutor;
+
+    @Value("${tasks.stats.ttl:PT5S}")
+    private Duration ttl;
+
+    @Value("${tasks.stats.max-entries:1000}")
+    private long maxEntries;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private Cache<List<Object>, TaskStatsDTO> cache;
+
+    @PostConstruct
+    private void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Метод получения статистики задач, подходящих под фильтр.
+     * @param params - фильтр задач в формате TaskParamsDTO (как в GET /tasks, без q)
+     * @return - возвращает статистику в формате TaskStatsDTO
+     */
+    public TaskStatsDTO getStats(TaskParamsDTO params) {
+        var key = Arrays.<Object>asList(params.getTitleCont(), params.getAssigneeId(), params.getStatus(),
+                params.getLabelId());
+        return cache.get(key, k -> compute(taskSpecification.build(params)));
+    }
+
+    private TaskStatsDTO compute(Specification<Task> specification) {
+        var total = submit(() -> taskRepository.count(specification));
+        var byStatus = submit(() -> taskRepository.countByStatus(specification));
+        var byAssignee = submit(() -> taskRepository.countByAssignee(specification));
+        var byLabel = submit(() -> taskRepository.countByLabel(specification));
+        try {
+            CompletableFuture.allOf(total, byStatus, byAssignee, byLabel).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        var stats = new TaskStatsDTO();
+        stats.setTotal(total.join());
+        stats.setByStatus(byStatus.join());
+        var assignees = new LinkedHashMap<>(byAssignee.join());
+        var unassigned = assignees.remove(null);
+        stats.setUnassigned(unassigned == null ? 0 : unassigned);
+        stats.setByAssignee(assignees);
+        stats.setByLabel(byLabel.join());
+        return stats;
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(() -> readOnlyTransaction.execute(status -> query.get()), taskExecutor);
+    }
+}
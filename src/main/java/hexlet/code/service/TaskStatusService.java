@@ -1,5 +1,6 @@
 package hexlet.code.service;
 
+import hexlet.code.component.ReferenceDataRegistry;
 import hexlet.code.model.TaskStatus;
 import hexlet.code.repository.TaskStatusRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +12,9 @@ public class TaskStatusService {
     @Autowired
     private TaskStatusRepository taskStatusRepository;
 
+    @Autowired
+    private ReferenceDataRegistry referenceDataRegistry;
+
     /**
      * Метод создания статусов задач при начальной инициализации.
      * @param name - имя статуса, передаваемый из DataInitializer.
@@ -22,5 +26,6 @@ public class TaskStatusService {
         taskStatus.setName(name);
         taskStatus.setSlug(slug);
         taskStatusRepository.save(taskStatus);
+        referenceDataRegistry.invalidateStatuses();
     }
 }
@@ -0,0 +1,327 @@
+package hexlet.code.service;
+
+import hexlet.code.dto.TaskParamsDTO;
+import hexlet.code.event.TaskChangedEvent;
+import hexlet.code.specification.TaskSpecification;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Сервис потока изменений задач для GET /api/tasks/stream (server-sent events).
+ * Каждое TaskChangedEvent после фиксации транзакции получает порядковый номер, записывается в кольцевой буфер
+ * последних tasks.stream.buffer-size событий и раздается подписчикам. Раздача не блокирует поток, фиксирующий
+ * транзакцию: сообщение кладется в ограниченную очередь подписчика (tasks.stream.queue-size), а отправкой
+ * клиенту занимается задача на собственном пуле из tasks.stream.senders потоков. Отправка медленному клиенту
+ * блокирует поток, поэтому общий applicationTaskExecutor (на нем, например, считается статистика задач)
+ * для нее не используется. Подписчик с переполненной очередью отключается;
+ * переподключившись с id последнего полученного события, он получает пропущенные события из буфера.
+ * Если нужных событий в буфере уже нет (или id выдан до перезапуска приложения), подписчик получает
+ * событие reset и должен перечитать список задач. То же событие приходит после массового изменения задач
+ * по фильтру: затронутые задачи по отдельности не известны.
+ */
+@Service
+public class TaskStreamService {
+
+    public static final String RESET_EVENT = "reset";
+
+    @Autowired
+    private TaskSpecification taskSpecification;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tasks.stream.buffer-size:1000}")
+    private int bufferSize;
+
+    @Value("${tasks.stream.queue-size:256}")
+    private int queueSize;
+
+    @Value("${tasks.stream.max-subscribers:1000}")
+    private int maxSubscribers;
+
+    @Value("${tasks.stream.timeout:PT30M}")
+    private Duration timeout;
+
+    @Value("${tasks.stream.senders:8}")
+    private int senders;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    // буфер, номер последнего события и состав подписчиков меняются под этой блокировкой
+    // (ReentrantLock, а не synchronized: ожидание не закрепляет виртуальный поток)
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private TaskChangedEvent[] buffer;
+
+    private long sequence;
+
+    private Counter dropped;
+
+    private ThreadPoolTaskExecutor taskExecutor;
+
+    @PostConstruct
+    private void init() {
+        buffer = new TaskChangedEvent[bufferSize];
+        // у подписчика в очереди пула не больше одной задачи отправки
+        taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.setCorePoolSize(senders);
+        taskExecutor.setMaxPoolSize(senders);
+        taskExecutor.setQueueCapacity(maxSubscribers);
+        taskExecutor.setThreadNamePrefix("task-stream-");
+        taskExecutor.initialize();
+        Gauge.builder("tasks.stream.subscribers", subscribers, Set::size)
+                .description("Open GET /api/tasks/stream connections")
+                .register(meterRegistry);
+        dropped = Counter.builder("tasks.stream.dropped")
+                .description("Task stream subscribers disconnected because their queue was full")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    private void destroy() {
+        taskExecutor.shutdown();
+    }
+
+    /**
+     * Метод подписки на изменения задач, подходящих под фильтр.
+     * @param params - фильтр задач в формате TaskParamsDTO (как в GET /tasks, без q)
+     * @param lastEventId - id последнего события, полученного клиентом (или null для подписки с текущего момента)
+     * @return - возвращает поток событий
+     */
+    public SseEmitter subscribe(TaskParamsDTO params, String lastEventId) {
+        var subscriber = new Subscriber(params, new SseEmitter(timeout.toMillis()));
+        lock.lock();
+        try {
+            if (subscribers.size() >= maxSubscribers) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many task stream subscribers");
+            }
+            replay(subscriber, lastEventId);
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+        subscriber.emitter.onCompletion(subscriber::close);
+        subscriber.emitter.onTimeout(subscriber::close);
+        subscriber.emitter.onError(e -> subscriber.close());
+        subscriber.schedule();
+        return subscriber.emitter;
+    }
+
+    /**
+     * Метод раздачи изменения задачи подписчикам после фиксации транзакции.
+     * @param event - событие изменения задачи
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        lock.lock();
+        try {
+            sequence++;
+            buffer[(int) (sequence % bufferSize)] = event;
+            for (var subscriber : subscribers) {
+                deliver(subscriber, subscriber.toMessage(sequence, event));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Метод отправки подписчикам пустого сообщения с id последнего события.
+     * Не дает прокси закрыть простаивающее соединение, обнаруживает отключившихся клиентов и сдвигает
+     * Last-Event-ID подписчика, которому давно не приходили события по его фильтру.
+     */
+    @Scheduled(fixedDelayString = "${tasks.stream.heartbeat:PT15S}")
+    public void heartbeat() {
+        lock.lock();
+        try {
+            var id = token(sequence);
+            for (var subscriber : subscribers) {
+                deliver(subscriber, new Message(id, null, null));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void deliver(Subscriber subscriber, Message message) {
+        if (message == null) {
+            return;
+        }
+        if (!subscriber.queue.offer(message)) {
+            // клиент не успевает читать: отключаем его, пропущенное он получит из буфера при переподключении
+            subscribers.remove(subscriber);
+            subscriber.dropped = true;
+            dropped.increment();
+        }
+        subscriber.schedule();
+    }
+
+    private void replay(Subscriber subscriber, String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return;
+        }
+        var from = parse(lastEventId);
+        var oldest = Math.max(1, sequence - bufferSize + 1);
+        if (from >= 0 && from <= sequence && from + 1 >= oldest) {
+            for (var seq = from + 1; seq <= sequence; seq++) {
+                var message = subscriber.toMessage(seq, buffer[(int) (seq % bufferSize)]);
+                if (message != null && !subscriber.queue.offer(message)) {
+                    break;
+                }
+            }
+            if (subscriber.queue.remainingCapacity() > 0) {
+                return;
+            }
+        }
+        subscriber.queue.clear();
+        subscriber.queue.offer(new Message(token(sequence), RESET_EVENT, Map.of()));
+    }
+
+    private String token(long seq) {
+        return epoch + "-" + seq;
+    }
+
+    private long parse(String token) {
+        var separator = token.lastIndexOf('-');
+        if (separator < 0 || !token.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(token.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Сообщение подписчику.
+     * @param id - id события (номер в буфере с эпохой экземпляра приложения)
+     * @param name - имя события (null для пустого сообщения)
+     * @param data - данные события
+     */
+    private record Message(String id, String name, Object data) {
+    }
+
+    /**
+     * Подписчик: фильтр, соединение и очередь еще не отправленных сообщений.
+     */
+    private final class Subscriber {
+
+        private final TaskParamsDTO params;
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<Message> queue = new ArrayBlockingQueue<>(queueSize);
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private volatile boolean dropped;
+
+        private volatile boolean closed;
+
+        Subscriber(TaskParamsDTO params, SseEmitter emitter) {
+            this.params = params;
+            this.emitter = emitter;
+        }
+
+        /**
+         * Метод выбора сообщения о событии для этого подписчика: созданная задача, не подходящая под фильтр,
+         * пропускается, а измененная - приходит как removed (клиент убирает ее, если она была в его списке).
+         * Массовое изменение приходит как reset.
+         * @param seq - номер события
+         * @param event - событие изменения задачи
+         * @return - возвращает сообщение или null, если событие подписчику не нужно
+         */
+        Message toMessage(long seq, TaskChangedEvent event) {
+            var id = token(seq);
+            if (event.isBulk()) {
+                return new Message(id, RESET_EVENT, Map.of());
+            }
+            var task = event.getTask();
+            var matches = task != null && taskSpecification.matches(params, task);
+            return switch (event.getType()) {
+                case CREATED -> matches ? new Message(id, "created", task) : null;
+                case UPDATED -> matches
+                        ? new Message(id, "updated", task)
+                        : new Message(id, "removed", Map.of("id", event.getTaskId()));
+                case DELETED -> new Message(id, "deleted", Map.of("id", event.getTaskId()));
+            };
+        }
+
+        void schedule() {
+            if (!closed && draining.compareAndSet(false, true)) {
+                try {
+                    taskExecutor.execute(this::drain);
+                } catch (TaskRejectedException e) {
+                    // пул отправки перегружен: отключаем клиента, пропущенное он получит при переподключении
+                    draining.set(false);
+                    close();
+                    TaskStreamService.this.dropped.increment();
+                    emitter.complete();
+                }
+            }
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+
+        private void drain() {
+            do {
+                try {
+                    Message message;
+                    while (!dropped && !closed && (message = queue.poll()) != null) {
+                        send(message);
+                    }
+                    if (dropped && !closed) {
+                        close();
+                        queue.clear();
+                        emitter.complete();
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // клиент отключился; контейнер сам сообщит об ошибке соединения
+                    close();
+                } finally {
+                    draining.set(false);
+                }
+            } while (!closed && !queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void send(Message message) throws IOException {
+            var event = SseEmitter.event().id(message.id());
+            if (message.name() == null) {
+                event.comment("heartbeat");
+            } else {
+                event.name(message.name()).data(message.data(), MediaType.APPLICATION_JSON);
+            }
+            emitter.send(event);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package hexlet.code.specification;
+
+import hexlet.code.exception.BadRequestException;
+import hexlet.code.dto.TaskDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Ключи сортировки задач, по которым поддерживается keyset-пагинация.
+ * Каждый ключ дополняется идентификатором задачи, чтобы порядок был строгим.
+ */
+@Getter
+@AllArgsConstructor
+public enum TaskSortKey {
+    ID("id", TaskDTO::getId, Long::valueOf),
+    CREATED_AT("createdAt", TaskDTO::getCreatedAt, LocalDate::parse);
+
+    private final String attribute;
+
+    private final Function<TaskDTO, ? extends Comparable<?>> extractor;
+
+    private final Function<String, ? extends Comparable<?>> parser;
+
+    /**
+     * Метод поиска ключа сортировки по имени атрибута.
+     * @param attribute - имя атрибута из параметра запроса sort
+     * @return - возвращает ключ сортировки
+     */
+    public static TaskSortKey of(String attribute) {
+        return Arrays.stream(values())
+                .filter(key -> key.attribute.equals(attribute))
+                .findFirst()
+                .orElseThrow(() -> new BadRequestException("Unsupported sort key " + attribute));
+    }
+
+    /**
+     * Метод построения сортировки по ключу с добором по идентификатору.
+     * @param direction - направление сортировки
+     * @return - возвращает объект Sort
+     */
+    public Sort toSort(Sort.Direction direction) {
+        if (this == ID) {
+            return Sort.by(direction, "id");
+        }
+        return Sort.by(direction, attribute).and(Sort.by(direction, "id"));
+    }
+
+    /**
+     * Метод получения значения ключа задачи в строковом виде для курсора.
+     * @param task - задача, на которой закончилась страница
+     * @return - возвращает строковое значение ключа
+     */
+    public String valueOf(TaskDTO task) {
+        var value = extractor.apply(task);
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Метод разбора значения ключа из курсора.
+     * @param value - строковое значение ключа
+     * @return - возвращает значение ключа нужного типа
+     */
+    public Comparable<?> parse(String value) {
+        try {
+            return value == null || value.isEmpty() ? null : parser.apply(value);
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor value " + value);
+        }
+    }
+}
@@ -1,13 +1,23 @@
 package hexlet.code.specification;
 
+import hexlet.code.dto.TaskDTO;
 import hexlet.code.dto.TaskParamsDTO;
 import hexlet.code.mapper.TaskMapper;
+import hexlet.code.exception.BadRequestException;
 import hexlet.code.model.Task;
+import hexlet.code.util.PageCursor;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.Objects;
+
 @Component
 public class TaskSpecification {
 
@@ -26,6 +36,68 @@ public class TaskSpecification {
                 .and(withLabelId(params.getLabelId()));
     }
 
+    /**
+     * Метод проверки задачи на соответствие фильтру в памяти (те же условия, что и в build, без обращения к БД).
+     * @param params - параметры запроса в формате TaskParamsDTO
+     * @param task - задача в формате TaskDTO
+     * @return - возвращает true, если задача подходит под фильтр
+     */
+    public boolean matches(TaskParamsDTO params, TaskDTO task) {
+        return (params.getAssigneeId() == null || params.getAssigneeId().equals(task.getAssigneeId()))
+                && (params.getTitleCont() == null || task.getTitle() != null
+                        && task.getTitle().toLowerCase().contains(params.getTitleCont().toLowerCase()))
+                && (params.getStatus() == null || params.getStatus().equals(task.getStatus()))
+                && (params.getLabelId() == null || task.getTaskLabelIds() != null
+                        && task.getTaskLabelIds().stream().anyMatch(id -> Objects.equals(id, params.getLabelId())));
+    }
+
+    /**
+     * Метод построения условия keyset-пагинации: строки строго после позиции курсора.
+     * Для ключа, отличного от id, сравнивается пара (ключ, id), чтобы порядок был строгим.
+     * @param cursor - курсор последней строки предыдущей страницы (null для первой страницы)
+     * @return - возвращает спецификацию условия "после курсора".
+     */
+    public Specification<Task> after(PageCursor cursor) {
+        if (cursor == null) {
+            return (root, query, criteriaBuilder) -> criteriaBuilder.conjunction();
+        }
+        var sortKey = TaskSortKey.of(cursor.getSortKey());
+        var value = sortKey.parse(cursor.getValue());
+        var ascending = cursor.getDirection() == Sort.Direction.ASC;
+        if (cursor.getId() == null || (sortKey != TaskSortKey.ID && value == null)) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        return (root, query, criteriaBuilder) -> {
+            Predicate byId = beyond(criteriaBuilder, root.get("id"), cursor.getId(), ascending);
+            if (sortKey == TaskSortKey.ID) {
+                return byId;
+            }
+            Expression<Comparable<Object>> key = root.get(sortKey.getAttribute());
+            return criteriaBuilder.or(
+                    beyond(criteriaBuilder, key, value, ascending),
+                    criteriaBuilder.and(criteriaBuilder.equal(key, value), byId));
+        };
+    }
+
+    /**
+     * Метод построения условия принадлежности задачи заданному набору идентификаторов.
+     * @param ids - идентификаторы задач
+     * @return - возвращает спецификацию условия "id in ids".
+     */
+    public Specification<Task> withIds(Collection<Long> ids) {
+        return (root, query, criteriaBuilder) -> ids.isEmpty()
+                ? criteriaBuilder.disjunction()
+                : root.get("id").in(ids);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate beyond(CriteriaBuilder criteriaBuilder, Expression key, Comparable value,
+                                    boolean ascending) {
+        return ascending
+                ? criteriaBuilder.greaterThan(key, value)
+                : criteriaBuilder.lessThan(key, value);
+    }
+
     private Specification<Task> withAssigneeId(Long assigneeId) {
         return ((root, query, criteriaBuilder)
                 -> assigneeId == null
@@ -45,7 +117,7 @@ public class TaskSpecification {
         return ((root, query, criteriaBuilder)
                 -> status == null
                 ? criteriaBuilder.conjunction()
-                : criteriaBuilder.equal(root.get("taskStatus").get("slug"), status));
+                : criteriaBuilder.equal(root.get("statusSlug"), status));
     }
 
     private Specification<Task> withLabelId(Long labelId) {
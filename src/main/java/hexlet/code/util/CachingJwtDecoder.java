@@ -0,0 +1,146 @@
+package hexlet.code.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HexFormat;
+
+/**
+ * Декодер JWT с кэшем уже проверенных токенов.
+ * Токен разбирается и его RSA-подпись проверяется делегатом только при первом предъявлении;
+ * затем Jwt хранится в ограниченном по размеру кэше до момента exp (но не дольше maxTtl).
+ * Ключ кэша - SHA-256 от строки токена, поэтому сами токены в памяти не хранятся.
+ * Ошибочные токены не кэшируются: каждый раз они проверяются заново и отклоняются.
+ * Время декодирования пишется в таймер security.jwt.decode с тегом source: cache, verified или rejected.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    public static final String CACHE_NAME = "jwt.decoder";
+
+    public static final String TIMER_NAME = "security.jwt.decode";
+
+    private final JwtDecoder delegate;
+
+    private final Duration maxTtl;
+
+    private final Clock clock;
+
+    private final Cache<String, Jwt> cache;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Timer fromCache;
+
+    private final Timer verified;
+
+    private final Timer rejected;
+
+    public CachingJwtDecoder(JwtDecoder delegate, long maxSize, Duration maxTtl, Clock clock,
+                             MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxTtl = maxTtl;
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilExpiresAt())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.meterRegistry = meterRegistry;
+        this.fromCache = timer(meterRegistry, "cache");
+        this.verified = timer(meterRegistry, "verified");
+        this.rejected = timer(meterRegistry, "rejected");
+    }
+
+    /**
+     * Метод декодирования токена: из кэша, если токен уже проверялся и еще не истек, иначе через делегата.
+     * @param token - строка JWT
+     * @return - возвращает проверенный Jwt.
+     * @throws JwtException - если токен не прошел проверку.
+     */
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        var sample = Timer.start(meterRegistry);
+        var key = digest(token);
+        var cached = cache.getIfPresent(key);
+        if (cached != null && !isExpired(cached)) {
+            sample.stop(fromCache);
+            return cached;
+        }
+        Jwt jwt;
+        try {
+            jwt = delegate.decode(token);
+        } catch (JwtException e) {
+            sample.stop(rejected);
+            throw e;
+        }
+        if (!isExpired(jwt)) {
+            cache.put(key, jwt);
+        }
+        sample.stop(verified);
+        return jwt;
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String source) {
+        return Timer.builder(TIMER_NAME)
+                .tag("source", source)
+                .description("Time to decode and verify a JWT")
+                .register(meterRegistry);
+    }
+
+    private boolean isExpired(Jwt jwt) {
+        return jwt.getExpiresAt() != null && !jwt.getExpiresAt().isAfter(clock.instant());
+    }
+
+    private long nanosToLive(Jwt jwt) {
+        var now = clock.instant();
+        var deadline = now.plus(maxTtl);
+        var expiresAt = jwt.getExpiresAt();
+        if (expiresAt != null && expiresAt.isBefore(deadline)) {
+            deadline = expiresAt;
+        }
+        return Math.max(Duration.between(now, deadline).toNanos(), 0);
+    }
+
+    private static String digest(String token) {
+        try {
+            var hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Политика истечения записей: запись живет до exp токена (но не дольше maxTtl).
+     */
+    private final class UntilExpiresAt implements Expiry<String, Jwt> {
+
+        @Override
+        public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+            return nanosToLive(jwt);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return nanosToLive(jwt);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package hexlet.code.util;
+
+import hexlet.code.exception.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Непрозрачный курсор для keyset-пагинации.
+ * Хранит ключ сортировки, направление, значение ключа и идентификатор последней строки страницы,
+ * чтобы следующая страница запрашивалась условием "после (значение, id)", а не смещением.
+ * Значение ключа (например, имя метки) может само содержать разделитель, поэтому при разборе оно берется
+ * между вторым и последним разделителем: остальные части разделителя не содержат.
+ */
+@Getter
+@AllArgsConstructor
+public final class PageCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final String sortKey;
+
+    private final Sort.Direction direction;
+
+    private final String value;
+
+    private final Long id;
+
+    /**
+     * Метод кодирования курсора в строку, передаваемую клиенту.
+     * @return - возвращает курсор в формате base64url
+     */
+    public String encode() {
+        var raw = String.join(SEPARATOR, sortKey, direction.name(), value == null ? "" : value, String.valueOf(id));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Метод разбора курсора, полученного от клиента.
+     * @param token - курсор в формате base64url
+     * @return - возвращает разобранный курсор
+     */
+    public static PageCursor decode(String token) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            var first = raw.indexOf(SEPARATOR);
+            var second = raw.indexOf(SEPARATOR, first + 1);
+            var last = raw.lastIndexOf(SEPARATOR);
+            if (first < 0 || second < 0 || last <= second) {
+                throw new IllegalArgumentException(raw);
+            }
+            return new PageCursor(raw.substring(0, first),
+                    Sort.Direction.valueOf(raw.substring(first + 1, second)),
+                    raw.substring(second + 1, last),
+                    Long.valueOf(raw.substring(last + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor " + token);
+        }
+    }
+}
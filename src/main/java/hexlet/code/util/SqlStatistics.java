@@ -0,0 +1,148 @@
+package hexlet.code.util;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Статистика SQL-запросов текущего HTTP-запроса: число выполненных операторов, время в БД
+ * и число повторов каждого одинакового текста оператора (признак N+1).
+ * Статистика привязана к потоку: ее открывает SqlStatisticsInterceptor перед вызовом обработчика,
+ * а пополняет слушатель прокси источника данных. Задачи, запущенные запросом на applicationTaskExecutor
+ * (например, параллельные запросы GET /api/tasks/stats), получают статистику запроса через декоратор
+ * propagate, поэтому ее пополняют несколько потоков сразу.
+ */
+public final class SqlStatistics {
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private static final int MAX_STACK_FRAMES = 12;
+
+    private final int repeatThreshold;
+
+    private int statements;
+
+    private long nanos;
+
+    private final Map<String, Integer> repeats = new HashMap<>();
+
+    private final Map<String, List<StackWalker.StackFrame>> repeated = new LinkedHashMap<>();
+
+    private SqlStatistics(int repeatThreshold) {
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    /**
+     * Метод открытия статистики для текущего потока.
+     * @param repeatThreshold - число повторов одного оператора, начиная с которого он считается N+1
+     * @return - возвращает открытую статистику
+     */
+    public static SqlStatistics start(int repeatThreshold) {
+        var statistics = new SqlStatistics(repeatThreshold);
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Метод получения статистики текущего потока.
+     * @return - возвращает статистику или null, если поток не обрабатывает HTTP-запрос
+     */
+    public static SqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Метод закрытия статистики текущего потока.
+     */
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Метод переноса статистики текущего потока в задачу, выполняемую в другом потоке
+     * (TaskDecorator пула applicationTaskExecutor): операторы задачи учитываются в статистике
+     * запроса, который ее запустил.
+     * @param task - задача
+     * @return - возвращает задачу, выполняемую со статистикой текущего потока
+     */
+    public static Runnable propagate(Runnable task) {
+        var statistics = CURRENT.get();
+        if (statistics == null) {
+            return task;
+        }
+        return () -> {
+            var previous = CURRENT.get();
+            CURRENT.set(statistics);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * Метод учета выполненного оператора (JDBC-пакет считается одним оператором).
+     * При достижении порога повторов запоминается стек вызова, чтобы найти место N+1 в коде.
+     * @param sql - текст оператора с параметрами-заполнителями
+     * @param elapsedNanos - время выполнения оператора в наносекундах
+     */
+    public synchronized void afterStatement(String sql, long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+        var count = repeats.merge(sql, 1, Integer::sum);
+        if (count == repeatThreshold) {
+            repeated.put(sql, StackWalker.getInstance().walk(frames -> frames
+                    .filter(frame -> frame.getClassName().startsWith("hexlet.code."))
+                    .filter(frame -> !frame.getClassName().startsWith(SqlStatistics.class.getName()))
+                    .limit(MAX_STACK_FRAMES)
+                    .toList()));
+        }
+    }
+
+    /**
+     * Метод получения числа выполненных операторов.
+     * @return - возвращает число операторов
+     */
+    public synchronized int getStatements() {
+        return statements;
+    }
+
+    /**
+     * Метод получения времени выполнения операторов.
+     * @return - возвращает суммарное время в миллисекундах
+     */
+    public synchronized double getMillis() {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Метод получения наибольшего числа повторов одного оператора.
+     * @return - возвращает число повторов (0, если операторов не было)
+     */
+    public synchronized int getMaxRepeats() {
+        return repeats.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+
+    /**
+     * Метод получения операторов, повторенных не меньше порога, со стеком вызова на момент достижения порога.
+     * @return - возвращает стеки по тексту оператора
+     */
+    public synchronized Map<String, List<StackWalker.StackFrame>> getRepeated() {
+        return new LinkedHashMap<>(repeated);
+    }
+
+    /**
+     * Метод получения числа повторов оператора.
+     * @param sql - текст оператора
+     * @return - возвращает число выполнений оператора в запросе
+     */
+    public synchronized int getRepeats(String sql) {
+        return repeats.getOrDefault(sql, 0);
+    }
+}
@@ -0,0 +1,46 @@
+package hexlet.code.util;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Слушатель прокси источника данных (datasource-proxy), учитывающий каждый выполненный оператор
+ * в статистике текущего HTTP-запроса. Вне HTTP-запросов (фоновые задачи, инициализация) ничего не делает.
+ * Начало оператора запоминается в потоке, который его выполняет: статистику одного запроса могут
+ * пополнять несколько потоков сразу.
+ */
+public class SqlStatisticsListener implements QueryExecutionListener {
+
+    private static final ThreadLocal<Long> STARTED_AT = new ThreadLocal<>();
+
+    /**
+     * Метод, вызываемый перед выполнением оператора.
+     * @param execInfo - сведения о выполнении
+     * @param queryInfoList - выполняемые операторы
+     */
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (SqlStatistics.current() != null) {
+            STARTED_AT.set(System.nanoTime());
+        }
+    }
+
+    /**
+     * Метод, вызываемый после выполнения оператора.
+     * @param execInfo - сведения о выполнении
+     * @param queryInfoList - выполненные операторы
+     */
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        var startedAt = STARTED_AT.get();
+        STARTED_AT.remove();
+        var statistics = SqlStatistics.current();
+        if (statistics != null && !queryInfoList.isEmpty()) {
+            statistics.afterStatement(queryInfoList.get(0).getQuery(),
+                    startedAt == null ? 0 : System.nanoTime() - startedAt);
+        }
+    }
+}
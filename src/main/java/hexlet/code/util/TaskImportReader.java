@@ -0,0 +1,255 @@
+package hexlet.code.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.dto.TaskImportRecord;
+import hexlet.code.exception.BadRequestException;
+import hexlet.code.exception.MalformedRecordException;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Потоковое чтение записей загружаемого файла задач (NDJSON или CSV).
+ * Записи разбираются по одной по мере чтения входного потока: в памяти держится только текущая запись,
+ * а пока вызывающий код не запросит следующую, поток дальше не читается (TCP сам притормаживает отправителя).
+ * Неверная запись (строка NDJSON, которая не разбирается, или нечисловой index в CSV) прочитывается до конца
+ * и сообщается исключением MalformedRecordException: ее номер учтен, и чтение продолжается со следующей записи.
+ * Ошибки, после которых границу следующей записи не найти (незакрытые кавычки CSV), остаются ошибками файла.
+ */
+public abstract class TaskImportReader implements Closeable {
+
+    /**
+     * Предельная длина поля CSV: запись длиннее считается ошибкой файла, а не читается в память целиком.
+     */
+    public static final int MAX_CSV_FIELD_LENGTH = 1 << 20;
+
+    /**
+     * Предельная длина строки NDJSON: более длинная строка пропускается и считается неверной записью.
+     */
+    public static final int MAX_NDJSON_LINE_LENGTH = 1 << 20;
+
+    private long position;
+
+    /**
+     * Метод открытия чтения NDJSON: по одному JSON-объекту TaskImportRecord на строку.
+     * @param objectMapper - ObjectMapper приложения
+     * @param in - входной поток
+     * @return - возвращает читатель записей
+     * @throws IOException - при ошибке чтения
+     */
+    public static TaskImportReader ndjson(ObjectMapper objectMapper, InputStream in) throws IOException {
+        var reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        var recordReader = objectMapper.readerFor(TaskImportRecord.class);
+        return new TaskImportReader() {
+            @Override
+            protected TaskImportRecord readNext() throws IOException {
+                var line = readLine(reader);
+                while (line != null && line.isBlank()) {
+                    line = readLine(reader);
+                }
+                if (line == null) {
+                    return null;
+                }
+                if (line.length() > MAX_NDJSON_LINE_LENGTH) {
+                    throw new MalformedRecordException("Line is longer than " + MAX_NDJSON_LINE_LENGTH + " characters");
+                }
+                try {
+                    return recordReader.readValue(line);
+                } catch (JsonProcessingException e) {
+                    throw new MalformedRecordException("Invalid JSON: " + e.getOriginalMessage());
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
+    }
+
+    /**
+     * Метод открытия чтения CSV (RFC 4180) с заголовком.
+     * Распознаются столбцы index, title, content, status, labels (имена через ";") и assignee_email,
+     * остальные столбцы пропускаются.
+     * @param in - входной поток в UTF-8
+     * @return - возвращает читатель записей
+     * @throws IOException - при ошибке чтения или отсутствии заголовка
+     */
+    public static TaskImportReader csv(InputStream in) throws IOException {
+        var reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        var header = readCsvRow(reader);
+        if (header == null) {
+            throw new BadRequestException("CSV header is missing");
+        }
+        var columns = new HashMap<String, Integer>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        return new TaskImportReader() {
+            @Override
+            protected TaskImportRecord readNext() throws IOException {
+                var row = readCsvRow(reader);
+                while (row != null && row.size() == 1 && row.get(0).isEmpty()) {
+                    row = readCsvRow(reader);
+                }
+                return row == null ? null : toRecord(row, columns);
+            }
+
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
+    }
+
+    /**
+     * Метод чтения следующей записи.
+     * Неверная запись учитывается в getPosition, как и прочитанная.
+     * @return - возвращает запись или null, если входной поток закончился
+     * @throws IOException - при ошибке чтения или разбора файла
+     * @throws MalformedRecordException - если запись прочитана, но неверна
+     */
+    public TaskImportRecord next() throws IOException {
+        TaskImportRecord record;
+        try {
+            record = readNext();
+        } catch (MalformedRecordException e) {
+            position++;
+            throw e;
+        }
+        if (record != null) {
+            position++;
+        }
+        return record;
+    }
+
+    /**
+     * Метод пропуска записей (при продолжении загрузки с места сбоя), в том числе неверных.
+     * @param count - число пропускаемых записей
+     * @return - возвращает число фактически пропущенных записей (меньше count, если поток закончился раньше)
+     * @throws IOException - при ошибке чтения или разбора файла
+     */
+    public long skip(long count) throws IOException {
+        var start = position;
+        while (position - start < count) {
+            try {
+                if (next() == null) {
+                    break;
+                }
+            } catch (MalformedRecordException e) {
+                // неверная запись была учтена при прошлой загрузке как отклоненная
+            }
+        }
+        return position - start;
+    }
+
+    /**
+     * Метод получения номера последней прочитанной записи (с единицы).
+     * @return - возвращает число прочитанных записей
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    protected abstract TaskImportRecord readNext() throws IOException;
+
+    private static TaskImportRecord toRecord(List<String> row, Map<String, Integer> columns) {
+        var record = new TaskImportRecord();
+        var index = column(row, columns, "index");
+        if (index != null) {
+            try {
+                record.setIndex(Long.valueOf(index));
+            } catch (NumberFormatException e) {
+                throw new MalformedRecordException("Invalid index " + index);
+            }
+        }
+        record.setTitle(column(row, columns, "title"));
+        record.setContent(column(row, columns, "content"));
+        record.setStatus(column(row, columns, "status"));
+        var labels = column(row, columns, "labels");
+        if (labels != null) {
+            record.setLabels(Arrays.stream(labels.split(";")).map(String::trim).filter(s -> !s.isEmpty()).toList());
+        }
+        record.setAssigneeEmail(column(row, columns, "assignee_email"));
+        return record;
+    }
+
+    private static String column(List<String> row, Map<String, Integer> columns, String name) {
+        var i = columns.get(name);
+        if (i == null || i >= row.size() || row.get(i).isEmpty()) {
+            return null;
+        }
+        return row.get(i);
+    }
+
+    private static String readLine(BufferedReader reader) throws IOException {
+        var line = new StringBuilder();
+        var c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        while (c != -1 && c != '\n') {
+            // строка длиннее предела дочитывается без сохранения, чтобы продолжить со следующей
+            if (c != '\r' && line.length() <= MAX_NDJSON_LINE_LENGTH) {
+                line.append((char) c);
+            }
+            c = reader.read();
+        }
+        return line.toString();
+    }
+
+    private static List<String> readCsvRow(BufferedReader reader) throws IOException {
+        var fields = new ArrayList<String>();
+        var field = new StringBuilder();
+        var quoted = false;
+        var c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        while (c != -1) {
+            if (field.length() > MAX_CSV_FIELD_LENGTH) {
+                throw new BadRequestException("CSV field is longer than " + MAX_CSV_FIELD_LENGTH + " characters");
+            }
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    var next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        if (quoted) {
+            throw new BadRequestException("Unterminated quoted field in CSV");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
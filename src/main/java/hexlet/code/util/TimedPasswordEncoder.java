@@ -0,0 +1,73 @@
+package hexlet.code.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Кодировщик паролей, замеряющий время делегата (BCrypt намеренно медленный, и его стоимость
+ * напрямую входит во время /api/login и создания пользователей).
+ * Время пишется в таймеры security.password.encode и security.password.matches (с тегом result).
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    private final Timer encode;
+
+    private final Timer matched;
+
+    private final Timer mismatched;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encode = Timer.builder("security.password.encode")
+                .description("Time to hash a password")
+                .register(meterRegistry);
+        this.matched = matchesTimer(meterRegistry, "match");
+        this.mismatched = matchesTimer(meterRegistry, "mismatch");
+    }
+
+    /**
+     * Метод хэширования пароля.
+     * @param rawPassword - пароль в открытом виде
+     * @return - возвращает хэш пароля
+     */
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encode.record(() -> delegate.encode(rawPassword));
+    }
+
+    /**
+     * Метод проверки пароля по хэшу.
+     * @param rawPassword - пароль в открытом виде
+     * @param encodedPassword - сохраненный хэш
+     * @return - возвращает true, если пароль совпадает
+     */
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        var start = System.nanoTime();
+        var result = delegate.matches(rawPassword, encodedPassword);
+        (result ? matched : mismatched).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    /**
+     * Метод проверки, нужно ли перехэшировать пароль (делегируется без замера).
+     * @param encodedPassword - сохраненный хэш
+     * @return - возвращает true, если хэш нужно обновить
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private static Timer matchesTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("security.password.matches")
+                .tag("result", result)
+                .description("Time to check a password against its hash")
+                .register(meterRegistry);
+    }
+}
@@ -1,13 +1,50 @@
 package hexlet.code;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
 @SpringBootTest
 class AppApplicationTests {
 
+    @Autowired
+    private DataSource dataSource;
+
     @Test
     void contextLoads() {
     }
 
+    @Test
+    void migrationsCreateQueryIndexes() throws SQLException {
+        assertThat(indexNames("TASKS"))
+                .contains("tasks_status_id_idx", "tasks_assignee_id_id_idx", "tasks_created_at_id_idx",
+                        "tasks_updated_at_id_idx");
+        assertThat(indexNames("TASK_TOMBSTONES")).contains("task_tombstones_deleted_at_idx");
+        assertThat(indexNames("TASK_LABEL"))
+                .contains("task_label_label_id_task_id_idx", "task_label_task_id_label_id_idx");
+        assertThat(indexNames("USERS")).contains("users_created_at_idx");
+        assertThat(indexNames("REFRESH_TOKENS")).contains("refresh_tokens_family_idx", "refresh_tokens_user_id_idx");
+    }
+
+    private Set<String> indexNames(String table) throws SQLException {
+        var names = new HashSet<String>();
+        try (var connection = dataSource.getConnection();
+             var indexes = connection.getMetaData().getIndexInfo(null, null, table, false, false)) {
+            while (indexes.next()) {
+                var name = indexes.getString("INDEX_NAME");
+                if (name != null) {
+                    names.add(name.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return names;
+    }
 }
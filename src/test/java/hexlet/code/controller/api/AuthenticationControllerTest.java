@@ -0,0 +1,182 @@
+package hexlet.code.controller.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.controller.AuthenticationController;
+import hexlet.code.dto.TokenPairDTO;
+import hexlet.code.model.RefreshToken;
+import hexlet.code.model.User;
+import hexlet.code.repository.RefreshTokenRepository;
+import hexlet.code.repository.UserRepository;
+import hexlet.code.service.RefreshTokenService;
+import hexlet.code.util.ModelClear;
+import hexlet.code.util.ModelGenerator;
+import org.instancio.Instancio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class AuthenticationControllerTest {
+
+    private static final String PASSWORD = "secret-password";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ModelGenerator modelGenerator;
+
+    @Autowired
+    private ModelClear modelClear;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    private User testUser;
+
+    /**
+     * Метод начальной инициализации.
+     */
+    @BeforeEach
+    public void setUp() {
+        modelClear.clearAll();
+        testUser = Instancio.of(modelGenerator.getUserModel()).create();
+        testUser.setPassword(passwordEncoder.encode(PASSWORD));
+        userRepository.save(testUser);
+    }
+
+    @Test
+    public void testLoginIssuesRefreshToken() throws Exception {
+        var response = login();
+        assertThat(response.getContentAsString()).isNotBlank();
+        assertThat(response.getHeader(AuthenticationController.REFRESH_TOKEN_HEADER)).isNotBlank();
+    }
+
+    @Test
+    public void testRefreshRotatesToken() throws Exception {
+        var refreshToken = login().getHeader(AuthenticationController.REFRESH_TOKEN_HEADER);
+
+        var pair = refresh(refreshToken);
+        assertThat(pair.getRefreshToken()).isNotEqualTo(refreshToken);
+        mockMvc.perform(get("/api/users")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + pair.getAccessToken()))
+                .andExpect(status().isOk());
+
+        var next = refresh(pair.getRefreshToken());
+        assertThat(next.getRefreshToken()).isNotEqualTo(pair.getRefreshToken());
+    }
+
+    @Test
+    public void testReusedRefreshTokenRevokesChain() throws Exception {
+        var refreshToken = login().getHeader(AuthenticationController.REFRESH_TOKEN_HEADER);
+        var pair = refresh(refreshToken);
+
+        performRefresh(refreshToken).andExpect(status().isUnauthorized());
+        performRefresh(pair.getRefreshToken()).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void testRevokedRefreshTokenIsRejected() throws Exception {
+        var refreshToken = login().getHeader(AuthenticationController.REFRESH_TOKEN_HEADER);
+        mockMvc.perform(post("/api/token/revoke")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("refreshToken", refreshToken))))
+                .andExpect(status().isNoContent());
+
+        performRefresh(refreshToken).andExpect(status().isUnauthorized());
+        performRefresh("unknown-token").andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void testPasswordChangeRevokesRefreshTokens() throws Exception {
+        var refreshToken = login().getHeader(AuthenticationController.REFRESH_TOKEN_HEADER);
+        mockMvc.perform(put("/api/users/" + testUser.getId())
+                        .with(jwt().jwt(builder -> builder.subject(testUser.getEmail())))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("password", "another-password"))))
+                .andExpect(status().isOk());
+
+        performRefresh(refreshToken).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void testPurgeKeepsOnlyUsableAndReuseDetectingTokens() throws Exception {
+        var loggedOut = login().getHeader(AuthenticationController.REFRESH_TOKEN_HEADER);
+        mockMvc.perform(post("/api/token/revoke")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("refreshToken", loggedOut))))
+                .andExpect(status().isNoContent());
+        var rotated = login().getHeader(AuthenticationController.REFRESH_TOKEN_HEADER);
+        var pair = refresh(rotated);
+        login();
+        var expired = refreshTokenRepository.findAll().stream()
+                .max(Comparator.comparing(RefreshToken::getId))
+                .orElseThrow();
+        expired.setExpiresAt(Instant.now().minusSeconds(1));
+        refreshTokenRepository.save(expired);
+
+        refreshTokenService.purge();
+
+        // остались действующий токен и отозванный токен его цепочки, нужный для распознавания повтора
+        assertThat(refreshTokenRepository.count()).isEqualTo(2);
+        performRefresh(rotated).andExpect(status().isUnauthorized());
+        performRefresh(pair.getRefreshToken()).andExpect(status().isUnauthorized());
+    }
+
+    private MockHttpServletResponse login() throws Exception {
+        var credentials = Map.of("username", testUser.getEmail(), "password", PASSWORD);
+        return mockMvc.perform(post("/api/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(credentials)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+    }
+
+    private TokenPairDTO refresh(String refreshToken) throws Exception {
+        var body = performRefresh(refreshToken)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readValue(body, TokenPairDTO.class);
+    }
+
+    private ResultActions performRefresh(String refreshToken) throws Exception {
+        return mockMvc.perform(post("/api/token/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("refreshToken", refreshToken))));
+    }
+}
@@ -18,13 +18,16 @@ import org.openapitools.jackson.nullable.JsonNullable;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 
 import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
@@ -37,6 +40,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -67,6 +71,9 @@ public class LabelControllerTest {
     @Autowired
     private ModelClear modelClear;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private Label testLabel;
     private SecurityMockMvcRequestPostProcessors.JwtRequestPostProcessor token;
 
@@ -102,6 +109,131 @@ public class LabelControllerTest {
         assertThat(labelDtoToString(actual)).isEqualTo(labelDtoToString(expected));
     }
 
+    @Test
+    @DisplayName("постраничный вывод меток по курсору, когда имя метки содержит разделитель курсора")
+    public void testIndexOfLabelsWithCursorBySeparatorName() throws Exception {
+        for (var name : List.of("a|b label", "a|b|c label", "b | label")) {
+            var label = new Label();
+            label.setName(name);
+            labelRepository.save(label);
+        }
+        var expected = labelRepository.findAll().stream()
+                .map(Label::getName)
+                .sorted()
+                .toList();
+        var actual = new ArrayList<String>();
+        var cursor = "";
+        do {
+            var response = mockMvc.perform(get("/api/labels").with(jwt())
+                            .param("size", "1")
+                            .param("sort", "name")
+                            .param("after", cursor))
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse();
+            List<LabelDTO> page = objectMapper.readValue(response.getContentAsString(), new TypeReference<>() { });
+            page.forEach(label -> actual.add(label.getName()));
+            cursor = response.getHeader("X-Next-Cursor");
+        } while (cursor != null);
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("условный запрос списка меток по ETag")
+    public void testIndexOfLabelsNotModified() throws Exception {
+        var etag = mockMvc.perform(get("/api/labels").with(jwt()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/api/labels").with(jwt()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        var label = Instancio.of(modelGenerator.getLabelModel()).create();
+        labelRepository.save(label);
+        var response = mockMvc.perform(get("/api/labels").with(jwt()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+        assertThat(response.getHeader("X-Total-Count")).isEqualTo("2");
+        assertThatJson(response.getContentAsString()).isArray().hasSize(2);
+    }
+
+    @Test
+    @DisplayName("ETag метки строится из версии строки, а совпадающий If-None-Match проверяется без БД")
+    public void testLabelTagsFollowRowVersion() throws Exception {
+        var itemTag = mockMvc.perform(get("/api/labels/" + testLabel.getId()).with(jwt()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        var listTag = mockMvc.perform(get("/api/labels").with(jwt()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        assertThat(itemTag).endsWith("-" + labelVersion() + "\"");
+
+        // запись в обход приложения: выданные ETag остаются в памяти, и ответ 304 дается без чтения метки
+        jdbcTemplate.update("UPDATE labels SET name = ? WHERE id = ?", "renamed elsewhere", testLabel.getId());
+        mockMvc.perform(get("/api/labels/" + testLabel.getId()).with(jwt()).header(HttpHeaders.IF_NONE_MATCH, itemTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/labels").with(jwt()).header(HttpHeaders.IF_NONE_MATCH, listTag))
+                .andExpect(status().isNotModified());
+
+        var data = new LabelUpdateDTO();
+        data.setName(JsonNullable.of("renamed here"));
+        mockMvc.perform(put("/api/labels/" + testLabel.getId()).with(token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(data)))
+                .andExpect(status().isOk());
+        var response = mockMvc.perform(get("/api/labels/" + testLabel.getId()).with(jwt())
+                        .header(HttpHeaders.IF_NONE_MATCH, itemTag))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotEqualTo(itemTag).endsWith("-" + labelVersion() + "\"");
+        assertThatJson(response.getContentAsString()).node("name").isEqualTo("renamed here");
+        mockMvc.perform(get("/api/labels").with(jwt()).header(HttpHeaders.IF_NONE_MATCH, listTag))
+                .andExpect(status().isOk());
+    }
+
+    private long labelVersion() {
+        return jdbcTemplate.queryForObject("SELECT version FROM labels WHERE id = ?", Long.class, testLabel.getId());
+    }
+
+    @Test
+    @DisplayName("условный запрос одной метки по ETag")
+    public void testShowLabelNotModified() throws Exception {
+        var etag = mockMvc.perform(get("/api/labels/" + testLabel.getId()).with(jwt()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/api/labels/" + testLabel.getId()).with(jwt()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        var data = new LabelUpdateDTO();
+        data.setName(JsonNullable.of("etag label"));
+        mockMvc.perform(put("/api/labels/" + testLabel.getId()).with(token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(data)))
+                .andExpect(status().isOk());
+        var response = mockMvc.perform(get("/api/labels/" + testLabel.getId()).with(jwt())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+        assertThatJson(response.getContentAsString()).and(v -> v.node("name").isEqualTo("etag label"));
+    }
+
     /**
      * Метод перевода List<LabelDTO> в строку.
      * @param list - List<LabelDTO>, который надо перевести в строку.
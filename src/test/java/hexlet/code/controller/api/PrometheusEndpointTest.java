@@ -0,0 +1,99 @@
+package hexlet.code.controller.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.model.User;
+import hexlet.code.repository.UserRepository;
+import hexlet.code.util.ModelClear;
+import hexlet.code.util.ModelGenerator;
+import org.instancio.Instancio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+public class PrometheusEndpointTest {
+
+    private static final String PASSWORD = "secret-password";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ModelGenerator modelGenerator;
+
+    @Autowired
+    private ModelClear modelClear;
+
+    private User testUser;
+
+    /**
+     * Метод начальной инициализации.
+     */
+    @BeforeEach
+    public void setUp() {
+        modelClear.clearAll();
+        testUser = Instancio.of(modelGenerator.getUserModel()).create();
+        testUser.setPassword(passwordEncoder.encode(PASSWORD));
+        userRepository.save(testUser);
+    }
+
+    @Test
+    public void testPrometheusExposesLatencyHistograms() throws Exception {
+        var credentials = Map.of("username", testUser.getEmail(), "password", PASSWORD);
+        var token = mockMvc.perform(post("/api/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(credentials)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        mockMvc.perform(get("/api/users").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+        var body = mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThat(body.lines().filter(line -> line.startsWith("http_server_requests_seconds_bucket{")))
+                .anyMatch(line -> line.contains("handler=\"UsersController#indexOfUsers\""))
+                .anyMatch(line -> line.contains("handler=\"AuthenticationController#create\""));
+        assertThat(body)
+                .contains("hikaricp_connections_acquire_seconds_bucket{")
+                .contains("hibernate_statements_total{")
+                .contains("hibernate_entities_loads_total{")
+                .contains("hibernate_collections_fetches_total{");
+        assertThat(body.lines().filter(line -> line.startsWith("security_jwt_decode_seconds_bucket{")))
+                .anyMatch(line -> line.contains("source=\"verified\""));
+        assertThat(body.lines().filter(line -> line.startsWith("security_password_matches_seconds_count{")))
+                .anyMatch(line -> line.contains("result=\"match\"") && !line.endsWith(" 0.0"));
+    }
+}
@@ -2,22 +2,37 @@ package hexlet.code.controller.api;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.controller.TaskController;
+import hexlet.code.dto.ImportJobDTO;
+import hexlet.code.dto.LabelDTO;
 import hexlet.code.dto.TaskCreateDTO;
 import hexlet.code.dto.TaskDTO;
 import hexlet.code.dto.TaskUpdateDTO;
+import hexlet.code.handler.SqlStatisticsHeadersAdvice;
 import hexlet.code.mapper.TaskMapper;
 import hexlet.code.model.Label;
 import hexlet.code.model.Task;
 import hexlet.code.model.TaskStatus;
 import hexlet.code.model.User;
 import hexlet.code.repository.LabelRepository;
+import hexlet.code.repository.TaskBulkSelectionRepository;
 import hexlet.code.repository.TaskRepository;
 import hexlet.code.repository.TaskStatusRepository;
 import hexlet.code.repository.UserRepository;
+import hexlet.code.service.TaskChangesService;
+import hexlet.code.service.TaskExportService;
+import hexlet.code.service.TaskImportService;
+import hexlet.code.service.TaskPatchService;
+import hexlet.code.service.TaskSearchService;
 import hexlet.code.service.TaskStatusService;
+import hexlet.code.service.TaskStreamService;
 import hexlet.code.util.ModelClear;
 import hexlet.code.util.ModelGenerator;
+import hexlet.code.util.PageCursor;
+import jakarta.persistence.EntityManagerFactory;
 import net.datafaker.Faker;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.instancio.Instancio;
 import org.instancio.Select;
 import org.junit.jupiter.api.BeforeEach;
@@ -26,25 +41,49 @@ import org.openapitools.jackson.nullable.JsonNullable;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -69,6 +108,9 @@ public class TaskControllerTest {
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private TaskBulkSelectionRepository taskBulkSelectionRepository;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -87,6 +129,24 @@ public class TaskControllerTest {
     @Autowired
     private ModelClear modelClear;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TaskImportService taskImportService;
+
+    @Autowired
+    private TaskChangesService taskChangesService;
+
+    @Autowired
+    private TaskSearchService taskSearchService;
+
+    @Autowired
+    private TaskPatchService taskPatchService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     private Task testTask;
     private SecurityMockMvcRequestPostProcessors.JwtRequestPostProcessor token;
     private User testUser;
@@ -108,17 +168,20 @@ public class TaskControllerTest {
 
         testUser = Instancio.of(User.class)
                 .ignore(Select.field(User::getId))
+                .ignore(Select.field(User::getVersion))
                 .supply(Select.field(User::getFirstName), () -> faker.name().firstName())
                 .supply(Select.field(User::getEmail), () -> faker.internet().emailAddress())
                 .supply(Select.field(User::getPassword), () -> faker.internet().password(3, 100))
                 .create();
         testTaskStatus = Instancio.of(TaskStatus.class)
                 .ignore(Select.field(TaskStatus::getId))
+                .ignore(Select.field(TaskStatus::getVersion))
                 .supply(Select.field(TaskStatus::getName), () -> faker.name().name())
                 .supply(Select.field(TaskStatus::getSlug), () -> faker.internet().slug())
                 .create();
         testTask = Instancio.of(Task.class)
                 .ignore(Select.field(Task::getId))
+                .ignore(Select.field(Task::getVersion))
                 .supply(Select.field(Task::getIndex), () -> faker.number().randomNumber())
                 .supply(Select.field(Task::getName), () -> faker.name().name())
                 .supply(Select.field(Task::getDescription), () -> faker.gameOfThrones().quote())
@@ -128,6 +191,7 @@ public class TaskControllerTest {
                 .create();
         testLabel = Instancio.of(Label.class)
                 .ignore(Select.field(Label::getId))
+                .ignore(Select.field(Label::getVersion))
                 .supply(Select.field(Label::getName), () -> faker.name().name())
                 .create();
         testLabels = List.of(testLabel);
@@ -156,6 +220,343 @@ public class TaskControllerTest {
         assertThat(taskDtoToString(actual)).isEqualTo(taskDtoToString(expected));
     }
 
+    @Test
+    public void testIndexOfTasksReportsSqlStatistics() throws Exception {
+        for (int i = 0; i < 8; i++) {
+            taskRepository.save(createTestTask());
+        }
+        var response = mockMvc.perform(get("/api/tasks").with(token))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+
+        assertThat(Integer.parseInt(response.getHeader(SqlStatisticsHeadersAdvice.COUNT_HEADER))).isPositive();
+        assertThat(Double.parseDouble(response.getHeader(SqlStatisticsHeadersAdvice.TIME_HEADER))).isPositive();
+        assertThat(response.getHeader(SqlStatisticsHeadersAdvice.MAX_REPEATS_HEADER)).isEqualTo("1");
+    }
+
+    @Test
+    public void testIndexOfTasksReportsTotalCount() throws Exception {
+        for (int i = 0; i < 12; i++) {
+            taskRepository.save(createTestTask());
+        }
+        var total = String.valueOf(taskRepository.count());
+        mockMvc.perform(get("/api/tasks").param("size", "5").with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", total))
+                .andExpect(header().doesNotExist("X-Total-Count-Estimated"));
+        mockMvc.perform(get("/api/tasks").param("after", "").param("size", "5").param("count", "estimate").with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", total))
+                .andExpect(header().doesNotExist("X-Total-Count-Estimated"));
+        mockMvc.perform(get("/api/tasks").param("assigneeId", "-1").with(jwt()))
+                .andExpect(header().string("X-Total-Count", "0"));
+
+        taskRepository.save(createTestTask());
+        mockMvc.perform(get("/api/tasks").param("size", "5").with(jwt()))
+                .andExpect(header().string("X-Total-Count", String.valueOf(taskRepository.count())));
+        mockMvc.perform(get("/api/tasks").param("count", "approximate").with(jwt()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testIndexOfTasksWithCursor() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            taskRepository.save(createTestTask());
+        }
+        var expected = taskRepository.findAll().stream()
+                .map(Task::getId)
+                .sorted()
+                .toList();
+        List<Long> actual = new ArrayList<>();
+        String cursor = "";
+        do {
+            var response = mockMvc.perform(get("/api/tasks").param("after", cursor).param("size", "2").with(jwt()))
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse();
+            List<TaskDTO> dtos = objectMapper.readValue(response.getContentAsString(),
+                    new TypeReference<List<TaskDTO>>() { });
+            assertThat(dtos.size()).isLessThanOrEqualTo(2);
+            dtos.forEach(dto -> actual.add(dto.getId()));
+            cursor = response.getHeader(TaskController.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    public void testIndexOfTasksWithCursorDescending() throws Exception {
+        var secondTask = taskRepository.save(createTestTask());
+        var response = mockMvc.perform(get("/api/tasks")
+                        .param("after", "")
+                        .param("size", "1")
+                        .param("sort", "createdAt")
+                        .param("order", "desc")
+                        .with(jwt()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        assertThatJson(response.getContentAsString()).isArray().hasSize(1);
+        assertThatJson(response.getContentAsString()).node("[0].id").isEqualTo(secondTask.getId());
+        var cursor = response.getHeader(TaskController.NEXT_CURSOR_HEADER);
+        assertThat(cursor).isNotNull();
+        var nextResponse = mockMvc.perform(get("/api/tasks").param("after", cursor).with(jwt()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        assertThatJson(nextResponse.getContentAsString()).node("[0].id").isEqualTo(testTask.getId());
+    }
+
+    @Test
+    public void testIndexOfTasksWithInvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/tasks").param("after", "not-a-cursor").with(jwt()))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks").param("after", "").param("sort", "title").with(jwt()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testIndexOfTasksWithPageSize() throws Exception {
+        for (int i = 0; i < 12; i++) {
+            taskRepository.save(createTestTask());
+        }
+        mockMvc.perform(get("/api/tasks").param("size", "5").with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(content -> assertThatJson(content.getResponse().getContentAsString())
+                        .isArray().hasSize(5));
+        mockMvc.perform(get("/api/tasks").param("size", "0").with(jwt()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testIndexOfTasksWithSearchQuery() throws Exception {
+        var inContent = createTestTask();
+        inContent.setName("Weekly report");
+        inContent.setDescription("Collect the quarterly numbers");
+        taskRepository.save(inContent);
+        var inTitle = createTestTask();
+        inTitle.setName("Quarterly planning");
+        inTitle.setDescription("Agenda");
+        taskRepository.save(inTitle);
+        var unrelated = createTestTask();
+        unrelated.setName("Fix login");
+        unrelated.setDescription("Session expires too early");
+        taskRepository.save(unrelated);
+
+        var response = mockMvc.perform(get("/api/tasks").param("q", "QUARTERLY").with(jwt()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        assertThatJson(response.getContentAsString()).isArray().hasSize(2);
+        assertThatJson(response.getContentAsString()).inPath("$[0].id").isEqualTo(inTitle.getId());
+        assertThatJson(response.getContentAsString()).inPath("$[1].id").isEqualTo(inContent.getId());
+
+        mockMvc.perform(get("/api/tasks").param("q", "quarterly").param("status", "unknown_status").with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(content -> assertThatJson(content.getResponse().getContentAsString())
+                        .isArray().isEmpty());
+        mockMvc.perform(get("/api/tasks").param("q", "quarterly").param("after", "").with(jwt()))
+                .andExpect(status().isBadRequest());
+
+        taskRepository.deleteById(inTitle.getId());
+        mockMvc.perform(get("/api/tasks").param("q", "quarterly").with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(content -> assertThatJson(content.getResponse().getContentAsString())
+                        .isArray().hasSize(1));
+    }
+
+    @Test
+    public void testSearchFiltersCandidatesBatchByBatch() throws Exception {
+        var otherStatus = taskStatusRepository.save(Instancio.of(TaskStatus.class)
+                .ignore(Select.field(TaskStatus::getId))
+                .ignore(Select.field(TaskStatus::getVersion))
+                .supply(Select.field(TaskStatus::getName), () -> faker.name().name())
+                .supply(Select.field(TaskStatus::getSlug), () -> faker.internet().slug())
+                .create());
+        var matching = new ArrayList<Long>();
+        for (int i = 0; i < 5; i++) {
+            var task = createTestTask();
+            task.setName("Zebracrossing " + i);
+            // самые новые (и при равной релевантности первые) кандидаты не проходят фильтр по статусу
+            if (i >= 3) {
+                task.setTaskStatus(otherStatus);
+            }
+            taskRepository.save(task);
+            if (i < 3) {
+                matching.add(0, task.getId());
+            }
+        }
+        var batchSize = ReflectionTestUtils.getField(taskSearchService, "batchSize");
+        var maxCandidates = ReflectionTestUtils.getField(taskSearchService, "maxCandidates");
+        ReflectionTestUtils.setField(taskSearchService, "batchSize", 2);
+        ReflectionTestUtils.setField(taskSearchService, "maxCandidates", 2);
+        try {
+            var lastPage = mockMvc.perform(get("/api/tasks").param("q", "zebracrossing")
+                            .param("status", testTaskStatus.getSlug())
+                            .param("size", "1")
+                            .param("page", "3")
+                            .with(jwt()))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(TaskController.TOTAL_COUNT_HEADER, "3"))
+                    .andExpect(header().doesNotExist(TaskController.TOTAL_ESTIMATED_HEADER))
+                    .andReturn()
+                    .getResponse();
+            assertThatJson(lastPage.getContentAsString()).inPath("$[0].id").isEqualTo(matching.get(2));
+
+            var firstPage = mockMvc.perform(get("/api/tasks").param("q", "zebracrossing")
+                            .param("status", testTaskStatus.getSlug())
+                            .param("size", "1")
+                            .with(jwt()))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(TaskController.TOTAL_ESTIMATED_HEADER, "true"))
+                    .andReturn()
+                    .getResponse();
+            assertThatJson(firstPage.getContentAsString()).inPath("$[0].id").isEqualTo(matching.get(0));
+        } finally {
+            ReflectionTestUtils.setField(taskSearchService, "batchSize", batchSize);
+            ReflectionTestUtils.setField(taskSearchService, "maxCandidates", maxCandidates);
+        }
+    }
+
+    @Test
+    public void testIndexOfTasksStatementCountDoesNotDependOnPageSize() throws Exception {
+        var extraLabels = new ArrayList<>(testLabels);
+        for (int i = 0; i < 3; i++) {
+            extraLabels.add(labelRepository.save(Instancio.of(modelGenerator.getLabelModel()).create()));
+        }
+        for (int i = 0; i < 20; i++) {
+            var task = createTestTask();
+            task.setLabels(new ArrayList<>(extraLabels));
+            taskRepository.save(task);
+        }
+        // общее число задач кэшируется: первый запрос после записи задач добавляет к замеру запрос count
+        mockMvc.perform(get("/api/tasks").with(jwt())).andExpect(status().isOk());
+        var smallPage = countStatements(get("/api/tasks").param("size", "2").with(jwt()));
+        var largePage = countStatements(get("/api/tasks").param("size", "20").with(jwt()));
+        var cursorPage = countStatements(get("/api/tasks").param("after", "").param("size", "20").with(jwt()));
+        var showTask = countStatements(get("/api/tasks/" + testTask.getId()).with(jwt()));
+        // выборка страницы, агрегация меток страницы и запрос количества
+        assertThat(smallPage).isLessThanOrEqualTo(3);
+        assertThat(largePage).isEqualTo(smallPage);
+        assertThat(cursorPage).isLessThanOrEqualTo(2);
+        assertThat(showTask).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    public void testIndexOfLabelsWithTaskCountsDoesNotLoadTasks() throws Exception {
+        var counted = labelRepository.save(Instancio.of(modelGenerator.getLabelModel()).create());
+        var unused = labelRepository.save(Instancio.of(modelGenerator.getLabelModel()).create());
+        for (int i = 0; i < 3; i++) {
+            var task = createTestTask();
+            task.setLabels(new ArrayList<>(List.of(counted)));
+            taskRepository.save(task);
+        }
+
+        var index = performWithStatistics(get("/api/labels").param("withCounts", "true").with(jwt()));
+        var show = performWithStatistics(get("/api/labels/" + counted.getId()).with(jwt()));
+        assertThat(index.getEntityLoadCount()).isZero();
+        assertThat(index.getCollectionFetchCount()).isZero();
+        // выборка страницы, запрос количества и GROUP BY по task_label
+        assertThat(index.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+        assertThat(show.getEntityLoadCount()).isZero();
+        assertThat(show.getPrepareStatementCount()).isEqualTo(1);
+
+        var body = mockMvc.perform(get("/api/labels").param("withCounts", "true").with(jwt()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        List<LabelDTO> labels = objectMapper.readValue(body, new TypeReference<>() { });
+        assertThat(labels).filteredOn(label -> label.getId().equals(counted.getId()))
+                .singleElement()
+                .extracting(LabelDTO::getTaskCount)
+                .isEqualTo(3L);
+        assertThat(labels).filteredOn(label -> label.getId().equals(unused.getId()))
+                .singleElement()
+                .extracting(LabelDTO::getTaskCount)
+                .isEqualTo(0L);
+        var plain = mockMvc.perform(get("/api/labels").with(jwt()))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        assertThat(plain).doesNotContain("taskCount");
+    }
+
+    /**
+     * Метод подсчета SQL-запросов, выполненных при обработке запроса.
+     * @param request - выполняемый запрос
+     * @return - возвращает число подготовленных SQL-запросов
+     */
+    private long countStatements(MockHttpServletRequestBuilder request) throws Exception {
+        return performWithStatistics(request).getPrepareStatementCount();
+    }
+
+    /**
+     * Метод выполнения запроса со сбором статистики Hibernate.
+     * @param request - выполняемый запрос
+     * @return - возвращает статистику, собранную за время обработки запроса
+     */
+    private Statistics performWithStatistics(MockHttpServletRequestBuilder request) throws Exception {
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        var enabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+            return statistics;
+        } finally {
+            statistics.setStatisticsEnabled(enabled);
+        }
+    }
+
+    /**
+     * Метод создания ещё одной задачи с тестовыми статусом, исполнителем и меткой.
+     * @return - возвращает несохраненную задачу
+     */
+    private Task createTestTask() {
+        return Instancio.of(Task.class)
+                .ignore(Select.field(Task::getId))
+                .ignore(Select.field(Task::getVersion))
+                .supply(Select.field(Task::getIndex), () -> faker.number().randomNumber())
+                .supply(Select.field(Task::getName), () -> faker.name().name())
+                .supply(Select.field(Task::getDescription), () -> faker.gameOfThrones().quote())
+                .supply(Select.field(Task::getTaskStatus), () -> testTaskStatus)
+                .supply(Select.field(Task::getAssignee), () -> testUser)
+                .supply(Select.field(Task::getLabels), () -> new ArrayList<>(testLabels))
+                .create();
+    }
+
+    /**
+     * Метод ожидания события в потоке GET /api/tasks/stream.
+     * @param stream - результат запроса потока (асинхронный)
+     * @param expected - ожидаемый фрагмент тела
+     * @return - возвращает тело потока, полученное к этому моменту
+     */
+    private String awaitStream(MvcResult stream, String expected) throws Exception {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        var body = stream.getResponse().getContentAsString();
+        // событие пишется в ответ несколькими частями: ждем и нужный текст, и конец события
+        while (!(body.contains(expected) && body.endsWith("\n\n")) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            body = stream.getResponse().getContentAsString();
+        }
+        assertThat(body).contains(expected);
+        return body;
+    }
+
+    /**
+     * Метод получения id задач из данных событий потока.
+     * @param body - тело потока
+     * @return - возвращает id задач в порядке событий
+     */
+    private List<Long> streamedTaskIds(String body) throws Exception {
+        var ids = new ArrayList<Long>();
+        for (var line : body.lines().filter(line -> line.startsWith("data:")).toList()) {
+            ids.add(objectMapper.readValue(line.substring("data:".length()), TaskDTO.class).getId());
+        }
+        return ids;
+    }
+
     /**
      * Метод перевода List<TaskDTO> в строку.
      * @param list - List<TaskDTO>, который надо перевести в строку.
@@ -297,6 +698,34 @@ public class TaskControllerTest {
         );
     }
 
+    @Test
+    public void testShowTaskWithLabelsAndWithoutAssignee() throws Exception {
+        var secondLabel = labelRepository.save(Instancio.of(modelGenerator.getLabelModel()).create());
+        var task = createTestTask();
+        task.setAssignee(null);
+        task.setLabels(new ArrayList<>(List.of(secondLabel, testLabel)));
+        taskRepository.save(task);
+        var response = mockMvc.perform(get("/api/tasks/" + task.getId()).with(jwt()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        var expected = taskMapper.map(taskRepository.findWithRelationsById(task.getId()).get());
+        var actual = objectMapper.readValue(response.getContentAsString(), TaskDTO.class);
+        assertThat(actual.getAssigneeId()).isNull();
+        assertThat(actual.getStatus()).isEqualTo(testTaskStatus.getSlug());
+        assertThat(actual.getCreatedAt()).isEqualTo(expected.getCreatedAt());
+        assertThat(actual.getTaskLabelIds())
+                .containsExactlyInAnyOrderElementsOf(expected.getTaskLabelIds())
+                .hasSize(2);
+        assertThat(taskDtoToString(List.of(actual))).isEqualTo(taskDtoToString(List.of(expected)));
+    }
+
+    @Test
+    public void testShowTaskNotFound() throws Exception {
+        mockMvc.perform(get("/api/tasks/" + (testTask.getId() + 1000)).with(jwt()))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     public void testShowTaskWithoutAuth() throws Exception {
         var request = get("/api/tasks/" + testTask.getId());
@@ -380,6 +809,640 @@ public class TaskControllerTest {
         assertThat(labelListToString(task.getLabels())).isEqualTo(labelListToString(testLabels));
     }
 
+    @Test
+    public void testCreateTaskResolvesLabelsInOneQuery() throws Exception {
+        var labelIds = new ArrayList<Long>();
+        for (int i = 0; i < 5; i++) {
+            labelIds.add(labelRepository.save(Instancio.of(modelGenerator.getLabelModel()).create()).getId());
+        }
+        TaskCreateDTO newCreateTask = new TaskCreateDTO();
+        newCreateTask.setIndex(101L);
+        newCreateTask.setTitle("newTitle");
+        newCreateTask.setStatus(testTaskStatus.getSlug());
+        newCreateTask.setTaskLabelIds(labelIds);
+        var request = post("/api/tasks")
+                .with(token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(newCreateTask));
+        var statistics = performWithStatistics(request);
+        // один запрос меток с IN и один запрос статуса по слагу
+        assertThat(statistics.getQueryExecutionCount()).isLessThanOrEqualTo(2);
+        var task = taskRepository.findWithRelationsById(taskRepository.findByIndex(101L).get().getId()).get();
+        assertThat(task.getLabels()).extracting(Label::getId).containsExactlyInAnyOrderElementsOf(labelIds);
+    }
+
+    @Test
+    public void testCreateTaskWithUnknownLabelsAndStatus() throws Exception {
+        TaskCreateDTO newCreateTask = new TaskCreateDTO();
+        newCreateTask.setIndex(101L);
+        newCreateTask.setTitle("newTitle");
+        newCreateTask.setStatus("unknown_status");
+        newCreateTask.setTaskLabelIds(List.of(testLabel.getId(), -1L, -2L));
+        var request = post("/api/tasks")
+                .with(token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(newCreateTask));
+        var bodyResponse = mockMvc.perform(request)
+                .andExpect(status().isBadRequest())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        assertThat(bodyResponse).contains("[-2, -1]").contains("unknown_status");
+        assertThat(taskRepository.findByIndex(101L)).isEmpty();
+    }
+
+    @Test
+    public void testCreateTasksInBatch() throws Exception {
+        var batch = new ArrayList<TaskCreateDTO>();
+        for (long i = 0; i < 120; i++) {
+            var dto = new TaskCreateDTO();
+            dto.setIndex(5000 + i);
+            dto.setTitle("Batch task " + i);
+            dto.setStatus(testTaskStatus.getSlug());
+            dto.setAssigneeId(testUser.getId());
+            dto.setTaskLabelIds(List.of(testLabel.getId()));
+            batch.add(dto);
+        }
+        var before = taskRepository.count();
+        var request = post("/api/tasks/batch")
+                .with(token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch));
+        var statements = countStatements(request);
+
+        assertThat(taskRepository.count()).isEqualTo(before + 120);
+        assertThat(statements).isLessThan(30);
+        var saved = taskRepository.findByIndex(5119L).orElseThrow();
+        assertThat(saved.getName()).isEqualTo("Batch task 119");
+        assertThat(saved.getAssignee().getId()).isEqualTo(testUser.getId());
+        assertThat(saved.getLabels()).extracting(Label::getId).containsExactly(testLabel.getId());
+    }
+
+    @Test
+    public void testCreateTasksInBatchReportsItemErrors() throws Exception {
+        var valid = new TaskCreateDTO();
+        valid.setIndex(6000L);
+        valid.setTitle("Valid");
+        valid.setStatus(testTaskStatus.getSlug());
+        var withoutStatus = new TaskCreateDTO();
+        withoutStatus.setIndex(6001L);
+        withoutStatus.setTitle("Without status");
+        var withUnknownReferences = new TaskCreateDTO();
+        withUnknownReferences.setIndex(6002L);
+        withUnknownReferences.setTitle("");
+        withUnknownReferences.setStatus("unknown_status");
+        withUnknownReferences.setAssigneeId(-1L);
+        withUnknownReferences.setTaskLabelIds(List.of(testLabel.getId(), -5L));
+        var request = post("/api/tasks/batch")
+                .with(token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(valid, withoutStatus, withUnknownReferences)));
+        var bodyResponse = mockMvc.perform(request)
+                .andExpect(status().isUnprocessableEntity())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThatJson(bodyResponse).isArray().hasSize(2);
+        assertThatJson(bodyResponse).inPath("$[0].index").isEqualTo(1);
+        assertThatJson(bodyResponse).inPath("$[0].errors").isObject().containsOnlyKeys("status");
+        assertThatJson(bodyResponse).inPath("$[1].index").isEqualTo(2);
+        assertThatJson(bodyResponse).inPath("$[1].errors").isObject()
+                .containsOnlyKeys("title", "status", "taskLabelIds", "assignee_id");
+        assertThat(taskRepository.findByIndex(6000L)).isEmpty();
+    }
+
+    @Test
+    public void testBulkUpdateTasks() throws Exception {
+        taskRepository.deleteById(testTask.getId());
+        var otherStatus = taskStatusRepository.save(Instancio.of(modelGenerator.getTaskStatusModel()).create());
+        var otherLabel = labelRepository.save(Instancio.of(modelGenerator.getLabelModel()).create());
+        var matching = new ArrayList<Task>();
+        for (int i = 0; i < 3; i++) {
+            matching.add(taskRepository.save(createTestTask()));
+        }
+        var untouched = createTestTask();
+        untouched.setTaskStatus(otherStatus);
+        taskRepository.save(untouched);
+        var body = "{\"status\": \"" + otherStatus.getSlug() + "\", \"assignee_id\": null,"
+                + " \"addLabelIds\": [" + otherLabel.getId() + "], \"removeLabelIds\": [" + testLabel.getId() + "]}";
+        var startedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+        mockMvc.perform(patch("/api/tasks/bulk")
+                        .param("status", testTaskStatus.getSlug())
+                        .param("labelId", String.valueOf(testLabel.getId()))
+                        .with(token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content -> assertThatJson(content.getResponse().getContentAsString())
+                        .inPath("affected").isEqualTo(3));
+
+        for (var task : matching) {
+            var updated = taskRepository.findWithRelationsById(task.getId()).orElseThrow();
+            assertThat(updated.getTaskStatus().getSlug()).isEqualTo(otherStatus.getSlug());
+            assertThat(updated.getAssignee()).isNull();
+            assertThat(updated.getLabels()).extracting(Label::getId).containsExactly(otherLabel.getId());
+            assertThat(updated.getUpdatedAt()).isAfterOrEqualTo(startedAt);
+        }
+        // отобранные идентификаторы удаляются в транзакции операции
+        assertThat(taskBulkSelectionRepository.count()).isZero();
+        var notUpdated = taskRepository.findWithRelationsById(untouched.getId()).orElseThrow();
+        assertThat(notUpdated.getAssignee().getId()).isEqualTo(testUser.getId());
+        assertThat(notUpdated.getLabels()).extracting(Label::getId).containsExactly(testLabel.getId());
+    }
+
+    @Test
+    public void testBulkDeleteTasks() throws Exception {
+        var otherStatus = taskStatusRepository.save(Instancio.of(modelGenerator.getTaskStatusModel()).create());
+        for (int i = 0; i < 3; i++) {
+            var task = createTestTask();
+            task.setName("Outdated draft " + i);
+            taskRepository.save(task);
+        }
+        var kept = createTestTask();
+        kept.setName("Outdated kept");
+        kept.setTaskStatus(otherStatus);
+        taskRepository.save(kept);
+        mockMvc.perform(get("/api/tasks").param("q", "outdated").with(jwt()))
+                .andExpect(content -> assertThatJson(content.getResponse().getContentAsString())
+                        .isArray().hasSize(4));
+
+        mockMvc.perform(delete("/api/tasks/bulk")
+                        .param("status", testTaskStatus.getSlug())
+                        .with(token))
+                .andExpect(status().isOk())
+                .andExpect(content -> assertThatJson(content.getResponse().getContentAsString())
+                        .inPath("affected").isEqualTo(4));
+
+        assertThat(taskRepository.findAll()).extracting(Task::getId).containsExactly(kept.getId());
+        // поисковый индекс не перестраивается: удаленные задачи отсеиваются при поиске
+        for (int i = 0; i < 2; i++) {
+            var found = mockMvc.perform(get("/api/tasks").param("q", "outdated").with(jwt()))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(TaskController.TOTAL_COUNT_HEADER, "1"))
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString();
+            assertThatJson(found).isArray().hasSize(1);
+            assertThatJson(found).inPath("$[0].id").isEqualTo(kept.getId());
+        }
+    }
+
+    @Test
+    public void testBulkStatementCountDoesNotDependOnSelection() throws Exception {
+        var fewStatus = taskStatusRepository.save(Instancio.of(modelGenerator.getTaskStatusModel()).create());
+        var manyStatus = taskStatusRepository.save(Instancio.of(modelGenerator.getTaskStatusModel()).create());
+        for (int i = 0; i < 12; i++) {
+            var task = createTestTask();
+            task.setTaskStatus(i < 2 ? fewStatus : manyStatus);
+            taskRepository.save(task);
+        }
+        var body = "{\"assignee_id\": null, \"addLabelIds\": [" + testLabel.getId() + "]}";
+
+        // первый запрос загружает справочник меток, поэтому сравниваются повторные
+        mockMvc.perform(patch("/api/tasks/bulk").param("status", fewStatus.getSlug())
+                        .with(token).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+        var updateFew = countStatements(patch("/api/tasks/bulk").param("status", fewStatus.getSlug())
+                .with(token).contentType(MediaType.APPLICATION_JSON).content(body));
+        var updateMany = countStatements(patch("/api/tasks/bulk").param("status", manyStatus.getSlug())
+                .with(token).contentType(MediaType.APPLICATION_JSON).content(body));
+        var deleteFew = countStatements(delete("/api/tasks/bulk").param("status", fewStatus.getSlug()).with(token));
+        var deleteMany = countStatements(delete("/api/tasks/bulk").param("status", manyStatus.getSlug()).with(token));
+
+        assertThat(updateMany).isEqualTo(updateFew);
+        assertThat(deleteMany).isEqualTo(deleteFew);
+        assertThat(taskRepository.findAll()).extracting(Task::getId).containsExactly(testTask.getId());
+    }
+
+    @Test
+    public void testBulkOperationsRequireFilter() throws Exception {
+        mockMvc.perform(delete("/api/tasks/bulk").with(token))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/tasks/bulk")
+                        .param("status", testTaskStatus.getSlug())
+                        .with(token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\": \"unknown_status\"}"))
+                .andExpect(status().isBadRequest());
+        assertThat(taskRepository.findById(testTask.getId())).isPresent();
+    }
+
+    @Test
+    public void testTaskStats() throws Exception {
+        var otherStatus = taskStatusRepository.save(Instancio.of(modelGenerator.getTaskStatusModel()).create());
+        var otherLabel = labelRepository.save(Instancio.of(modelGenerator.getLabelModel()).create());
+        for (int i = 0; i < 3; i++) {
+            var task = createTestTask();
+            task.setTaskStatus(otherStatus);
+            task.setAssignee(null);
+            task.setLabels(new ArrayList<>(List.of(testLabel, otherLabel)));
+            taskRepository.save(task);
+        }
+        var tasks = taskRepository.findAll();
+        var withTestLabel = tasks.stream()
+                .filter(task -> task.getLabels().stream().anyMatch(l -> l.getId().equals(testLabel.getId())))
+                .count();
+
+        var response = mockMvc.perform(get("/api/tasks/stats").with(jwt()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        var body = response.getContentAsString();
+        // четыре запроса статистики выполняются на applicationTaskExecutor и учитываются в заголовке запроса
+        assertThat(Integer.parseInt(response.getHeader(SqlStatisticsHeadersAdvice.COUNT_HEADER)))
+                .isGreaterThanOrEqualTo(4);
+        assertThatJson(body).and(
+                v -> v.node("total").isEqualTo(tasks.size()),
+                v -> v.node("unassigned").isEqualTo(3),
+                v -> v.node("by_status." + otherStatus.getSlug()).isEqualTo(3),
+                v -> v.node("by_assignee." + testUser.getId()).isEqualTo(tasks.size() - 3),
+                v -> v.node("by_label." + otherLabel.getId()).isEqualTo(3),
+                v -> v.node("by_label." + testLabel.getId()).isEqualTo(withTestLabel)
+        );
+
+        var filtered = mockMvc.perform(get("/api/tasks/stats").param("status", otherStatus.getSlug()).with(jwt()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        assertThatJson(filtered).and(
+                v -> v.node("total").isEqualTo(3),
+                v -> v.node("by_status").isEqualTo(Map.of(otherStatus.getSlug(), 3)),
+                v -> v.node("by_assignee").isObject().isEmpty()
+        );
+
+        mockMvc.perform(get("/api/tasks/stats").param("q", "title").with(jwt()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testStreamOfTaskChanges() throws Exception {
+        var stream = mockMvc.perform(get("/api/tasks/stream").param("titleCont", "stream-me").with(token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        var skipped = createTestTask();
+        skipped.setName("not streamed");
+        taskRepository.save(skipped);
+        var task = createTestTask();
+        task.setName("please stream-me");
+        taskRepository.save(task);
+        taskRepository.deleteById(task.getId());
+
+        var body = awaitStream(stream, "event:deleted");
+        stream.getRequest().getAsyncContext().complete();
+
+        assertThat(body).contains("event:created").contains("please stream-me").doesNotContain("not streamed");
+        assertThat(streamedTaskIds(body)).containsExactly(task.getId(), task.getId());
+    }
+
+    @Test
+    public void testStreamReplaysEventsAfterLastEventId() throws Exception {
+        var live = mockMvc.perform(get("/api/tasks/stream").with(token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        var first = createTestTask();
+        taskRepository.save(first);
+        var lastEventId = awaitStream(live, "event:created").lines()
+                .filter(line -> line.startsWith("id:"))
+                .findFirst()
+                .orElseThrow()
+                .substring("id:".length());
+        live.getRequest().getAsyncContext().complete();
+        var second = createTestTask();
+        taskRepository.save(second);
+
+        var resumed = mockMvc.perform(get("/api/tasks/stream")
+                        .header(TaskController.LAST_EVENT_ID_HEADER, lastEventId)
+                        .with(token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        var body = awaitStream(resumed, "event:created");
+        resumed.getRequest().getAsyncContext().complete();
+        assertThat(streamedTaskIds(body)).containsExactly(second.getId());
+
+        var unknown = mockMvc.perform(get("/api/tasks/stream")
+                        .header(TaskController.LAST_EVENT_ID_HEADER, "unknown-1")
+                        .with(token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        awaitStream(unknown, "event:" + TaskStreamService.RESET_EVENT);
+        unknown.getRequest().getAsyncContext().complete();
+
+        mockMvc.perform(get("/api/tasks/stream").param("q", "title").with(token))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testTaskChangesSinceWatermark() throws Exception {
+        var settle = ReflectionTestUtils.getField(taskChangesService, "settle");
+        ReflectionTestUtils.setField(taskChangesService, "settle", Duration.ZERO);
+        try {
+            var other = createTestTask();
+            taskRepository.save(other);
+            String watermark = null;
+            var synced = new ArrayList<Long>();
+            var hasMore = true;
+            while (hasMore) {
+                var request = get("/api/tasks/changes").param("size", "100").with(token);
+                if (watermark != null) {
+                    request.param("since", watermark);
+                }
+                var body = mockMvc.perform(request)
+                        .andExpect(status().isOk())
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+                var page = objectMapper.readTree(body);
+                page.get("changes").forEach(change -> synced.add(change.get("id").asLong()));
+                watermark = page.get("watermark").asText();
+                hasMore = page.get("has_more").asBoolean();
+            }
+            assertThat(synced).contains(testTask.getId(), other.getId());
+
+            var dto = new TaskUpdateDTO();
+            dto.setTitle(JsonNullable.of("synced-title"));
+            mockMvc.perform(put("/api/tasks/" + testTask.getId())
+                            .with(token)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(dto)))
+                    .andExpect(status().isOk());
+            mockMvc.perform(delete("/api/tasks/" + other.getId()).with(token))
+                    .andExpect(status().isNoContent());
+
+            var body = mockMvc.perform(get("/api/tasks/changes").param("since", watermark).with(token))
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString();
+            assertThatJson(body).node("has_more").isEqualTo(false);
+            assertThatJson(body).node("changes").isArray().hasSize(2);
+            assertThatJson(body).node("changes[0].type").isEqualTo("upsert");
+            assertThatJson(body).node("changes[0].id").isEqualTo(testTask.getId());
+            assertThatJson(body).node("changes[0].task.title").isEqualTo("synced-title");
+            assertThatJson(body).node("changes[1].type").isEqualTo("delete");
+            assertThatJson(body).node("changes[1].id").isEqualTo(other.getId());
+            var next = objectMapper.readTree(body).get("watermark").asText();
+            var empty = mockMvc.perform(get("/api/tasks/changes").param("since", next).with(token))
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString();
+            assertThatJson(empty).node("changes").isArray().isEmpty();
+
+            var expired = new PageCursor("changedAt", Sort.Direction.ASC, Instant.EPOCH.toString(), 0L).encode();
+            mockMvc.perform(get("/api/tasks/changes").param("since", expired).with(token))
+                    .andExpect(status().isGone());
+            mockMvc.perform(get("/api/tasks/changes").param("since", "not-a-watermark").with(token))
+                    .andExpect(status().isBadRequest());
+        } finally {
+            ReflectionTestUtils.setField(taskChangesService, "settle", settle);
+        }
+    }
+
+    @Test
+    public void testTaskChangesWaitForTransactionCommittedAfterSettle() throws Exception {
+        var settle = ReflectionTestUtils.getField(taskChangesService, "settle");
+        ReflectionTestUtils.setField(taskChangesService, "settle", Duration.ofMillis(50));
+        var other = taskRepository.save(createTestTask());
+        var stamped = new CountDownLatch(1);
+        var commit = new CountDownLatch(1);
+        try {
+            var watermark = readWatermark(mockMvc.perform(get("/api/tasks/changes").with(token))
+                    .andExpect(status().isOk())
+                    .andReturn());
+            var transaction = new TransactionTemplate(transactionManager);
+            var writer = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(s -> {
+                var dto = new TaskUpdateDTO();
+                dto.setTitle(JsonNullable.of("slow-title"));
+                taskPatchService.patch(testTask.getId(), dto);
+                stamped.countDown();
+                try {
+                    commit.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertThat(stamped.await(10, TimeUnit.SECONDS)).isTrue();
+            var dto = new TaskUpdateDTO();
+            dto.setTitle(JsonNullable.of("fast-title"));
+            mockMvc.perform(put("/api/tasks/" + other.getId())
+                            .with(token)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(dto)))
+                    .andExpect(status().isOk());
+            // медленная транзакция фиксируется позже, чем проходит окно tasks.changes.settle
+            Thread.sleep(200);
+            var pending = mockMvc.perform(get("/api/tasks/changes").param("since", watermark).with(token))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            commit.countDown();
+            writer.get(10, TimeUnit.SECONDS);
+
+            var body = mockMvc.perform(get("/api/tasks/changes").param("since", readWatermark(pending)).with(token))
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString();
+            var titles = new ArrayList<String>();
+            objectMapper.readTree(body).get("changes").forEach(change -> titles.add(change.at("/task/title").asText()));
+            assertThat(titles).contains("slow-title");
+        } finally {
+            commit.countDown();
+            ReflectionTestUtils.setField(taskChangesService, "settle", settle);
+        }
+    }
+
+    private String readWatermark(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("watermark").asText();
+    }
+
+    @Test
+    public void testExportTasksAsNdjson() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            taskRepository.save(createTestTask());
+        }
+        var result = mockMvc.perform(get("/api/tasks/export").with(token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        var body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        var lines = body.lines().toList();
+        var expected = taskRepository.findAll().stream().map(Task::getId).sorted().toList();
+        assertThat(lines).hasSize(expected.size());
+        for (int i = 0; i < lines.size(); i++) {
+            var dto = objectMapper.readValue(lines.get(i), TaskDTO.class);
+            assertThat(dto.getId()).isEqualTo(expected.get(i));
+        }
+    }
+
+    @Test
+    public void testExportTasksAsCsvWithFilter() throws Exception {
+        var task = createTestTask();
+        task.setName("Title, with \"quotes\"");
+        taskRepository.save(task);
+        var result = mockMvc.perform(get("/api/tasks/export")
+                        .param("format", "csv")
+                        .param("titleCont", "with \"quotes")
+                        .with(token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        var body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        var lines = body.lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).isEqualTo("id,index,title,content,status,assignee_id,createdAt,taskLabelIds");
+        assertThat(lines.get(1)).startsWith(task.getId() + "," + task.getIndex() + ",\"Title, with \"\"quotes\"\"\",");
+        assertThat(lines.get(1)).endsWith("," + task.getCreatedAt() + "," + testLabel.getId());
+
+        mockMvc.perform(get("/api/tasks/export").param("format", "xml").with(token))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testImportTasksFromNdjson() throws Exception {
+        var body = String.join("\n",
+                "{\"index\": 7001, \"title\": \"Imported 1\", \"status\": \"" + testTaskStatus.getSlug() + "\","
+                        + " \"labels\": [\"" + testLabel.getName() + "\"],"
+                        + " \"assignee_email\": \"" + testUser.getEmail() + "\"}",
+                "{\"index\": 7002, \"title\": \"Imported 2\", \"status\": \"" + testTaskStatus.getSlug() + "\"}",
+                "{\"index\": 7003, \"title\": \"Rejected\", \"status\": \"unknown_status\","
+                        + " \"labels\": [\"unknown label\"], \"assignee_email\": \"nobody@example.com\"}");
+
+        var job = importTasks(body, "ndjson", null);
+
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+        assertThat(job.getProcessed()).isEqualTo(3);
+        assertThat(job.getImported()).isEqualTo(2);
+        assertThat(job.getRejected()).isEqualTo(1);
+        assertThat(job.getRejections()).hasSize(1);
+        assertThat(job.getRejections().get(0))
+                .startsWith("Record 3:")
+                .contains("unknown_status", "unknown label", "nobody@example.com");
+
+        var first = taskRepository.findByIndex(7001L).orElseThrow();
+        var imported = taskRepository.findWithRelationsById(first.getId()).orElseThrow();
+        assertThat(imported.getName()).isEqualTo("Imported 1");
+        assertThat(imported.getTaskStatus().getSlug()).isEqualTo(testTaskStatus.getSlug());
+        assertThat(imported.getAssignee().getId()).isEqualTo(testUser.getId());
+        assertThat(imported.getLabels()).extracting(Label::getId).containsExactly(testLabel.getId());
+        assertThat(taskRepository.findByIndex(7002L)).isPresent();
+        assertThat(taskRepository.findByIndex(7003L)).isEmpty();
+
+        mockMvc.perform(get("/api/tasks/import/" + job.getId()).with(token))
+                .andExpect(status().isOk())
+                .andExpect(content -> assertThatJson(content.getResponse().getContentAsString())
+                        .and(v -> v.node("status").isEqualTo("COMPLETED"))
+                        .and(v -> v.node("imported").isEqualTo(2)));
+    }
+
+    @Test
+    public void testImportTasksFromCsv() throws Exception {
+        var body = "index,title,content,status,labels,assignee_email\r\n"
+                + "7101,\"Title, with \"\"quotes\"\"\",\"line 1\nline 2\"," + testTaskStatus.getSlug()
+                + "," + testLabel.getName() + "," + testUser.getEmail() + "\r\n"
+                + "7102,Plain,," + testTaskStatus.getSlug() + ",,\r\n"
+                + "not-a-number,Bad index,," + testTaskStatus.getSlug() + ",,\r\n";
+
+        var job = importTasks(body, "csv", null);
+
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+        assertThat(job.getImported()).isEqualTo(2);
+        assertThat(job.getRejections()).containsExactly("Record 3: Invalid index not-a-number");
+        var task = taskRepository.findWithRelationsById(taskRepository.findByIndex(7101L).orElseThrow().getId())
+                .orElseThrow();
+        assertThat(task.getName()).isEqualTo("Title, with \"quotes\"");
+        assertThat(task.getDescription()).isEqualTo("line 1\nline 2");
+        assertThat(task.getLabels()).extracting(Label::getId).containsExactly(testLabel.getId());
+        var plain = taskRepository.findWithRelationsById(taskRepository.findByIndex(7102L).orElseThrow().getId())
+                .orElseThrow();
+        assertThat(plain.getDescription()).isNull();
+        assertThat(plain.getAssignee()).isNull();
+        assertThat(plain.getLabels()).isEmpty();
+    }
+
+    @Test
+    public void testImportTasksResumesAfterFailure() throws Exception {
+        var chunkSize = ReflectionTestUtils.getField(taskImportService, "chunkSize");
+        ReflectionTestUtils.setField(taskImportService, "chunkSize", 2);
+        try {
+            var records = new ArrayList<String>();
+            for (int i = 1; i <= 5; i++) {
+                records.add("{\"index\": " + (7200 + i) + ", \"title\": \"Task " + i + "\","
+                        + " \"status\": \"" + testTaskStatus.getSlug() + "\"}");
+            }
+            // чтение файла обрывается ошибкой ввода-вывода на четвертой записи
+            var head = (String.join("\n", records.subList(0, 3)) + "\n").getBytes(StandardCharsets.UTF_8);
+            var interrupted = new SequenceInputStream(new ByteArrayInputStream(head), new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    throw new IOException("Connection reset");
+                }
+            });
+
+            var failed = taskImportService.importTasks(interrupted, TaskExportService.Format.NDJSON, null, job -> { });
+
+            assertThat(failed.getStatus()).isEqualTo("FAILED");
+            assertThat(failed.getProcessed()).isEqualTo(2);
+            assertThat(failed.getError()).startsWith("Stopped after record 2");
+            assertThat(taskRepository.findByIndex(7202L)).isPresent();
+            assertThat(taskRepository.findByIndex(7203L)).isEmpty();
+
+            // неверная запись отклоняется и не останавливает загрузку
+            var broken = new ArrayList<>(records);
+            broken.set(3, "not json");
+            var resumed = importTasks(String.join("\n", broken), "ndjson", failed.getId());
+
+            assertThat(resumed.getId()).isEqualTo(failed.getId());
+            assertThat(resumed.getStatus()).isEqualTo("COMPLETED");
+            assertThat(resumed.getProcessed()).isEqualTo(5);
+            assertThat(resumed.getImported()).isEqualTo(4);
+            assertThat(resumed.getRejected()).isEqualTo(1);
+            assertThat(resumed.getRejections()).hasSize(1);
+            assertThat(resumed.getRejections().get(0)).startsWith("Record 4: Invalid JSON");
+            assertThat(resumed.getError()).isNull();
+            assertThat(taskRepository.findByIndex(7204L)).isEmpty();
+            for (int i : List.of(1, 2, 3, 5)) {
+                assertThat(taskRepository.findByIndex(7200L + i)).isPresent();
+            }
+
+            mockMvc.perform(post("/api/tasks/import")
+                            .param("jobId", String.valueOf(failed.getId()))
+                            .with(token)
+                            .content(String.join("\n", records)))
+                    .andExpect(status().isBadRequest());
+        } finally {
+            ReflectionTestUtils.setField(taskImportService, "chunkSize", chunkSize);
+        }
+    }
+
+    private ImportJobDTO importTasks(String body, String format, Long jobId) throws Exception {
+        var request = post("/api/tasks/import")
+                .param("format", format)
+                .with(token)
+                .content(body);
+        if (jobId != null) {
+            request.param("jobId", String.valueOf(jobId));
+        }
+        var response = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readValue(response, ImportJobDTO.class);
+    }
+
     /**
      * Метод перевода List<Label> в строку.
      * @param list - List<Label>, который надо перевести в строку.
@@ -416,6 +1479,58 @@ public class TaskControllerTest {
         assertThat(bodyResponse).isEmpty();
     }
 
+    @Test
+    public void testShowAndIndexOfTasksNotModified() throws Exception {
+        var showEtag = mockMvc.perform(get("/api/tasks/" + testTask.getId()).with(jwt()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        var indexEtag = mockMvc.perform(get("/api/tasks").with(jwt()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        assertThat(showEtag).isNotNull();
+        assertThat(indexEtag).isNotNull();
+        mockMvc.perform(get("/api/tasks/" + testTask.getId()).with(jwt()).header(HttpHeaders.IF_NONE_MATCH, showEtag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/tasks").with(jwt()).header(HttpHeaders.IF_NONE_MATCH, indexEtag))
+                .andExpect(status().isNotModified());
+
+        var dto = new TaskUpdateDTO();
+        dto.setTitle(JsonNullable.of("etag-title"));
+        mockMvc.perform(put("/api/tasks/" + testTask.getId()).with(token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk());
+
+        var show = mockMvc.perform(get("/api/tasks/" + testTask.getId()).with(jwt())
+                        .header(HttpHeaders.IF_NONE_MATCH, showEtag))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        assertThat(show.getHeader(HttpHeaders.ETAG)).isNotEqualTo(showEtag);
+        assertThatJson(show.getContentAsString()).and(v -> v.node("title").isEqualTo("etag-title"));
+        mockMvc.perform(get("/api/tasks").with(jwt()).header(HttpHeaders.IF_NONE_MATCH, indexEtag))
+                .andExpect(status().isOk());
+
+        // PATCH пишет задачу в обход JPA и увеличивает версию той же командой UPDATE
+        var putEtag = show.getHeader(HttpHeaders.ETAG);
+        dto.setTitle(JsonNullable.of("etag-patched"));
+        mockMvc.perform(patch("/api/tasks/" + testTask.getId()).with(token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk());
+        var patched = mockMvc.perform(get("/api/tasks/" + testTask.getId()).with(jwt())
+                        .header(HttpHeaders.IF_NONE_MATCH, putEtag))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        assertThat(patched.getHeader(HttpHeaders.ETAG)).isNotEqualTo(putEtag);
+        assertThatJson(patched.getContentAsString()).and(v -> v.node("title").isEqualTo("etag-patched"));
+    }
+
     @Test
     public void testUpdateTask() throws Exception {
         var dto = new TaskUpdateDTO();
@@ -439,6 +1554,62 @@ public class TaskControllerTest {
         assertThat(labelListToString(updateTask.getLabels())).isEqualTo(labelListToString(testLabels));
     }
 
+    @Test
+    public void testPatchTask() throws Exception {
+        var otherLabel = labelRepository.save(Instancio.of(modelGenerator.getLabelModel()).create());
+        var labelsDto = new TaskUpdateDTO();
+        labelsDto.setTaskLabelIds(JsonNullable.of(List.of(testLabel.getId(), otherLabel.getId())));
+        mockMvc.perform(patch("/api/tasks/" + testTask.getId())
+                        .with(token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(labelsDto)))
+                .andExpect(status().isOk());
+
+        var titleDto = new TaskUpdateDTO();
+        titleDto.setTitle(JsonNullable.of("patched-title"));
+        var statements = countStatements(patch("/api/tasks/" + testTask.getId())
+                .with(jwt())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(titleDto)));
+        // UPDATE по переданным полям и чтение проекции вместе с метками
+        assertThat(statements).isLessThanOrEqualTo(2);
+
+        labelsDto.setTaskLabelIds(JsonNullable.of(List.of(otherLabel.getId())));
+        labelsDto.setAssigneeId(JsonNullable.of(null));
+        var body = mockMvc.perform(patch("/api/tasks/" + testTask.getId())
+                        .with(token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(labelsDto)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        assertThatJson(body).node("title").isEqualTo("patched-title");
+        assertThatJson(body).node("content").isEqualTo(testTask.getDescription());
+        assertThatJson(body).node("status").isEqualTo(testTaskStatus.getSlug());
+        assertThatJson(body).node("assignee_id").isAbsent();
+        assertThatJson(body).node("taskLabelIds").isEqualTo(List.of(otherLabel.getId()));
+
+        var patched = taskRepository.findWithRelationsById(testTask.getId()).orElseThrow();
+        assertThat(patched.getName()).isEqualTo("patched-title");
+        assertThat(patched.getDescription()).isEqualTo(testTask.getDescription());
+        assertThat(patched.getAssignee()).isNull();
+        assertThat(patched.getLabels()).extracting(Label::getId).containsExactly(otherLabel.getId());
+
+        var statusDto = new TaskUpdateDTO();
+        statusDto.setStatus(JsonNullable.of(null));
+        mockMvc.perform(patch("/api/tasks/" + testTask.getId())
+                        .with(token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(statusDto)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/tasks/" + (testTask.getId() + 100_000))
+                        .with(token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(titleDto)))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     public void testUpdateTaskWithStatusNull() throws Exception {
         var dto = new TaskUpdateDTO();
@@ -0,0 +1,47 @@
+package hexlet.code.controller.api;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"spring.threads.virtual.enabled=true", "virtual-threads.db-permits=2"})
+@AutoConfigureMockMvc
+public class TaskControllerVirtualThreadsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TaskExecutor applicationTaskExecutor;
+
+    @Test
+    public void testIndexOfTasksWaitsForPoolPermit() throws Exception {
+        var before = meterRegistry.get("db.permit.wait").tag("outcome", "acquired").timer().count();
+        mockMvc.perform(get("/api/tasks").with(jwt()))
+                .andExpect(status().isOk());
+        assertThat(meterRegistry.get("db.permit.wait").tag("outcome", "acquired").timer().count())
+                .isEqualTo(before + 1);
+        assertThat(meterRegistry.get("db.permit.available").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    public void testAsyncWorkRunsOnVirtualThreads() throws Exception {
+        var virtual = new CompletableFuture<Boolean>();
+        applicationTaskExecutor.execute(() -> virtual.complete(Thread.currentThread().isVirtual()));
+        assertThat(virtual.get()).isTrue();
+    }
+}
@@ -2,15 +2,18 @@ package hexlet.code.controller.api;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.dto.TaskCreateDTO;
 import hexlet.code.dto.TaskStatusDTO;
 import hexlet.code.dto.TaskStatusUpdateDTO;
 import hexlet.code.mapper.TaskStatusMapper;
 import hexlet.code.model.TaskStatus;
 import hexlet.code.model.User;
+import hexlet.code.repository.TaskRepository;
 import hexlet.code.repository.TaskStatusRepository;
 import hexlet.code.repository.UserRepository;
 import hexlet.code.util.ModelClear;
 import hexlet.code.util.ModelGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
 import net.datafaker.Faker;
 import org.instancio.Instancio;
 import org.junit.jupiter.api.BeforeEach;
@@ -72,6 +75,12 @@ public class TaskStatusesControllerTest {
     @Autowired
     private ModelClear modelClear;
 
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private TaskStatus testTaskStatus;
     private SecurityMockMvcRequestPostProcessors.JwtRequestPostProcessor token;
     private User testUser;
@@ -218,6 +227,52 @@ public class TaskStatusesControllerTest {
         assertThat(taskStatus.getName()).isEqualTo("new-status");
     }
 
+    @Test
+    public void testUpdateTaskStatusSlugInvalidatesRegistry() throws Exception {
+        var oldSlug = testTaskStatus.getSlug();
+        var createTask = new TaskCreateDTO();
+        createTask.setTitle("title");
+        createTask.setStatus(oldSlug);
+        mockMvc.perform(post("/api/tasks").with(token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createTask)))
+                .andExpect(status().isCreated());
+        taskRepository.deleteAll();
+
+        var dto = new TaskStatusUpdateDTO();
+        dto.setSlug(JsonNullable.of("renamed_slug"));
+        mockMvc.perform(put("/api/task_statuses/" + testTaskStatus.getId())
+                        .with(token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/tasks").with(token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createTask)))
+                .andExpect(status().isBadRequest());
+        createTask.setStatus("renamed_slug");
+        var hitsBefore = registryLookups("hit");
+        mockMvc.perform(post("/api/tasks").with(token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createTask)))
+                .andExpect(status().isCreated());
+        assertThat(registryLookups("hit")).isGreaterThan(hitsBefore);
+    }
+
+    /**
+     * Метод получения счетчика обращений к справочнику статусов.
+     * @param result - hit или miss
+     * @return - возвращает значение счетчика
+     */
+    private double registryLookups(String result) {
+        return meterRegistry.get("reference.registry.lookups")
+                .tag("type", "status")
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+
     @Test
     public void testUpdateTaskStatusWithoutAuth() throws Exception {
         //repository.save(testTaskStatus);
@@ -7,8 +7,11 @@ import hexlet.code.dto.UserUpdateDTO;
 import hexlet.code.mapper.UserMapper;
 import hexlet.code.model.User;
 import hexlet.code.repository.UserRepository;
+import hexlet.code.util.CachingJwtDecoder;
+import hexlet.code.util.JWTUtils;
 import hexlet.code.util.ModelClear;
 import hexlet.code.util.ModelGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
 import net.datafaker.Faker;
 import org.instancio.Instancio;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,6 +20,7 @@ import org.openapitools.jackson.nullable.JsonNullable;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
 import org.springframework.test.web.servlet.MockMvc;
@@ -24,6 +28,7 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 
 import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
@@ -65,6 +70,12 @@ public class UsersControllerTest {
     @Autowired
     private ModelClear modelClear;
 
+    @Autowired
+    private JWTUtils jwtUtils;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private SecurityMockMvcRequestPostProcessors.JwtRequestPostProcessor token;
 
     private User testUser;
@@ -103,6 +114,69 @@ public class UsersControllerTest {
         assertThat(userDtoToString(actual)).isEqualTo(userDtoToString(expected));
     }
 
+    @Test
+    public void testIndexOfUsersWithPagesAndCursor() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            userRepository.save(Instancio.of(modelGenerator.getUserModel()).create());
+        }
+        var expected = userRepository.findAll().stream()
+                .map(User::getEmail)
+                .sorted()
+                .toList();
+
+        var lastPage = mockMvc.perform(get("/api/users?page=3&size=2&sort=email").with(jwt()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        assertThat(lastPage.getHeader("X-Total-Count")).isEqualTo("5");
+        assertThatJson(lastPage.getContentAsString()).isArray().hasSize(1);
+        assertThatJson(lastPage.getContentAsString()).inPath("[0].email").isEqualTo(expected.get(4));
+        assertThat(lastPage.getContentAsString()).doesNotContain("password");
+
+        var actual = new ArrayList<String>();
+        var cursor = "";
+        do {
+            var response = mockMvc.perform(get("/api/users").with(jwt())
+                            .param("size", "2")
+                            .param("sort", "email")
+                            .param("after", cursor))
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse();
+            assertThat(response.getHeader("X-Total-Count")).isEqualTo("5");
+            List<UserDTO> page = objectMapper.readValue(response.getContentAsString(), new TypeReference<>() { });
+            page.forEach(user -> actual.add(user.getEmail()));
+            cursor = response.getHeader("X-Next-Cursor");
+        } while (cursor != null);
+        assertThat(actual).isEqualTo(expected);
+
+        mockMvc.perform(get("/api/users?sort=password").with(jwt()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testIndexOfUsersWithBearerTokenVerifiesTokenOnce() throws Exception {
+        var bearer = "Bearer " + jwtUtils.generateToken(testUser.getEmail());
+        var misses = cacheGets("miss");
+        var hits = cacheGets("hit");
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/users").header(HttpHeaders.AUTHORIZATION, bearer))
+                    .andExpect(status().isOk());
+        }
+        assertThat(cacheGets("miss") - misses).isEqualTo(1);
+        assertThat(cacheGets("hit") - hits).isEqualTo(2);
+
+        mockMvc.perform(get("/api/users").header(HttpHeaders.AUTHORIZATION, bearer + "x"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tags("cache", CachingJwtDecoder.CACHE_NAME, "result", result)
+                .functionCounter()
+                .count();
+    }
+
     @Test
     public void testIndexOfUsersWithoutAuth() throws Exception {
         var response = mockMvc.perform(get("/api/users"))